@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.execution.scope.internal.MojoExecutionScope;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelProcessor;
+import org.apache.maven.model.io.ModelReader;
+import org.apache.maven.model.io.ModelWriter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.ContainerConfiguration;
+import org.codehaus.plexus.DefaultContainerConfiguration;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.PlexusConstants;
+import org.codehaus.plexus.PlexusContainer;
+import org.sonatype.maven.polyglot.PolyglotModelManager;
+import org.sonatype.maven.polyglot.TeslaModelTranslator;
+import org.sonatype.maven.polyglot.cache.ModelCache;
+import org.sonatype.maven.polyglot.kotlin.engine.ScriptCache;
+import org.sonatype.maven.polyglot.scala.eval.ClassCache;
+
+/**
+ * Shared setup of the benchmarks: a container with all flavours, their POM fixtures and synthetic large models.
+ *
+ * The fixtures are read from the {@code poms} directory of the source tree, set {@code polyglot.benchmark.poms} to
+ * run from elsewhere. The persistent model, Kotlin script and Scala class caches are disabled unless their properties
+ * are set, so cold reads measure a first read.
+ */
+final class BenchmarkSupport {
+
+  /** The flavours with the POM file name they are benchmarked with. */
+  static final String[][] FLAVOURS = {
+      {"atom", "pom.atom"},
+      {"clojure", "pom.clj"},
+      {"groovy", "pom.groovy"},
+      {"kotlin", "pom.kts"},
+      {"scala", "pom.scala"},
+      {"xml41", "pom.xml41"},
+      {"yaml", "pom.yml"},
+  };
+
+  private static final File POMS = new File(System.getProperty("polyglot.benchmark.poms", "../poms"));
+
+  private final PlexusContainer container;
+
+  private final PolyglotModelManager manager;
+
+  private final MojoExecutionScope scope;
+
+  static {
+    // the Kotlin script host looks up its compilation classpath by jar name, which the shaded jar does not have
+    if (System.getProperty("kotlin.script.classpath") == null) {
+      System.setProperty("kotlin.script.classpath", System.getProperty("java.class.path"));
+    }
+    // persistent caches would turn every fork after the first into a warm read, unless explicitly enabled
+    for (String property : new String[] {
+        ModelCache.ENABLED_PROPERTY, ScriptCache.ENABLED_PROPERTY, ClassCache.EnabledProperty()}) {
+      if (System.getProperty(property) == null) {
+        System.setProperty(property, "false");
+      }
+    }
+  }
+
+  /**
+   * Boots the container and enters a mojo execution scope, for writers asking for the current project. Must be
+   * disposed by the same thread.
+   */
+  BenchmarkSupport() throws Exception {
+    ContainerConfiguration configuration = new DefaultContainerConfiguration()
+        .setClassPathScanning(PlexusConstants.SCANNING_INDEX)
+        .setAutoWiring(true)
+        .setName("polyglot-benchmarks");
+    container = new DefaultPlexusContainer(configuration);
+    manager = container.lookup(PolyglotModelManager.class);
+    scope = container.lookup(MojoExecutionScope.class);
+    scope.enter();
+    scope.seed(MavenProject.class, new MavenProject());
+  }
+
+  void dispose() throws Exception {
+    scope.exit();
+    container.dispose();
+  }
+
+  TeslaModelTranslator getTranslator() throws Exception {
+    return container.lookup(TeslaModelTranslator.class);
+  }
+
+  ModelReader getReader(File pom) {
+    return manager.getReaderFor(options(pom));
+  }
+
+  ModelWriter getWriter(File pom) {
+    return manager.getWriterFor(options(pom));
+  }
+
+  static Map<String, Object> options(File pom) {
+    Map<String, Object> options = new HashMap<>();
+    options.put(ModelProcessor.SOURCE, new FileModelSource(pom));
+    return options;
+  }
+
+  static String fileName(String flavour) {
+    for (String[] entry : FLAVOURS) {
+      if (entry[0].equals(flavour)) {
+        return entry[1];
+      }
+    }
+    throw new IllegalArgumentException("Unknown flavour: " + flavour);
+  }
+
+  /**
+   * Returns the POM to benchmark the flavour with in the given directory. The fixtures are copied there, so readers
+   * that write next to the POM, like the Scala compiler, leave the source tree alone. A large POM, or a fixture that
+   * is missing for the flavour, is written there, translated from {@code pom.yml} for the latter.
+   *
+   * @param pom {@code fixture} or {@code large}
+   */
+  File preparePom(String flavour, String pom, File dir) throws IOException {
+    File[] fixtures = POMS.listFiles(File::isFile);
+    if (fixtures != null) {
+      for (File fixture : fixtures) {
+        Files.copy(fixture.toPath(), new File(dir, fixture.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    File fixture = new File(dir, fileName(flavour));
+    if ("fixture".equals(pom) && fixture.isFile()) {
+      return fixture;
+    }
+    Model model = "fixture".equals(pom) ? readFixtureModel() : largeModel(200, 20, 30);
+    File file = new File(dir, fileName(flavour));
+    try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      getWriter(file).write(out, options(file), model);
+    }
+    return file;
+  }
+
+  Model readFixtureModel() throws IOException {
+    File yaml = new File(POMS, "pom.yml");
+    return getReader(yaml).read(yaml, options(yaml));
+  }
+
+  /**
+   * Builds a model the size of a large enterprise POM.
+   */
+  static Model largeModel(int dependencies, int profiles, int plugins) {
+    Model model = new Model();
+    model.setModelVersion("4.0.0");
+    model.setGroupId("org.example.benchmark");
+    model.setArtifactId("large");
+    model.setVersion("1.0.0-SNAPSHOT");
+    model.setPackaging("jar");
+    model.setName("Large benchmark POM");
+    for (int i = 0; i < 20; i++) {
+      model.addProperty("property" + i, "value" + i);
+    }
+    for (int i = 0; i < dependencies; i++) {
+      model.addDependency(dependency(i));
+    }
+    Build build = new Build();
+    for (int i = 0; i < plugins; i++) {
+      build.addPlugin(plugin(i));
+    }
+    model.setBuild(build);
+    for (int i = 0; i < profiles; i++) {
+      Profile profile = new Profile();
+      profile.setId("profile" + i);
+      profile.addProperty("profile.property", String.valueOf(i));
+      for (int j = 0; j < 5; j++) {
+        profile.addDependency(dependency(dependencies + i * 5 + j));
+      }
+      model.addProfile(profile);
+    }
+    return model;
+  }
+
+  private static Dependency dependency(int i) {
+    Dependency dependency = new Dependency();
+    dependency.setGroupId("org.example.group" + (i % 10));
+    dependency.setArtifactId("artifact" + i);
+    dependency.setVersion("1." + i + ".0");
+    if (i % 4 == 0) {
+      dependency.setScope("test");
+    }
+    return dependency;
+  }
+
+  private static Plugin plugin(int i) {
+    Plugin plugin = new Plugin();
+    plugin.setGroupId("org.example.plugins");
+    plugin.setArtifactId("plugin" + i);
+    plugin.setVersion("2." + i);
+    PluginExecution execution = new PluginExecution();
+    execution.setId("execution" + i);
+    execution.setPhase("package");
+    execution.addGoal("goal" + i);
+    plugin.addExecution(execution);
+    return plugin;
+  }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.benchmarks;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.ModelReader;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonatype.maven.polyglot.kotlin.dsl.DSLSupportKt;
+import org.sonatype.maven.polyglot.kotlin.dsl.DependencyList;
+
+import kotlin.text.Regex;
+import kotlin.text.StringsKt;
+
+/**
+ * Measures the Kotlin DSL on a POM with 2,000 dependencies: parsing the coordinates, against the former regex based
+ * split as baseline, building the dependency list and reading the whole POM. Run it with the GC profiler to compare
+ * allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KotlinDslBenchmark {
+
+  private static final int DEPENDENCIES = 2000;
+
+  private static final Regex DELIMITER = new Regex(":");
+
+  private BenchmarkSupport support;
+
+  private File dir;
+
+  private File pomFile;
+
+  private ModelReader reader;
+
+  private Map<String, Object> options;
+
+  private String[] coordinates;
+
+  @Setup
+  public void setUp() throws Exception {
+    support = new BenchmarkSupport();
+    dir = Files.createTempDirectory("polyglot-benchmark").toFile();
+    Model model = BenchmarkSupport.largeModel(DEPENDENCIES, 0, 0);
+    pomFile = new File(dir, "pom.kts");
+    try (Writer out = Files.newBufferedWriter(pomFile.toPath(), StandardCharsets.UTF_8)) {
+      support.getWriter(pomFile).write(out, BenchmarkSupport.options(pomFile), model);
+    }
+    reader = support.getReader(pomFile);
+    options = BenchmarkSupport.options(pomFile);
+    coordinates = new String[DEPENDENCIES];
+    for (int i = 0; i < DEPENDENCIES; i++) {
+      Dependency dependency = model.getDependencies().get(i);
+      coordinates[i] = dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion()
+          + (i % 2 == 0 ? ":jar:tests" : "");
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    support.dispose();
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Benchmark
+  public void splitCoordinates(Blackhole blackhole) {
+    for (String gavtc : coordinates) {
+      blackhole.consume(DSLSupportKt.splitCoordinates(gavtc, 5));
+    }
+  }
+
+  /**
+   * The implementation {@link #splitCoordinates(Blackhole)} replaced.
+   */
+  @Benchmark
+  public void splitCoordinatesRegex(Blackhole blackhole) {
+    for (String gavtc : coordinates) {
+      String[] parts = new String[5];
+      List<String> split = DELIMITER.split(gavtc, 5);
+      for (int i = 0; i < split.size(); i++) {
+        String part = split.get(i);
+        parts[i] = StringsKt.isBlank(part) ? null : StringsKt.trim(part).toString();
+      }
+      blackhole.consume(parts);
+    }
+  }
+
+  @Benchmark
+  public DependencyList dependencyList() {
+    DependencyList dependencies = new DependencyList();
+    for (String gavtc : coordinates) {
+      dependencies.dependency(gavtc, null);
+    }
+    return dependencies;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Model read() throws Exception {
+    return reader.read(pomFile, options);
+  }
+}
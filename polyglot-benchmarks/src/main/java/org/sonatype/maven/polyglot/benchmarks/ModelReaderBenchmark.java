@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.ModelReader;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ModelReader#read(File, Map)} of each flavour.
+ *
+ * The cold benchmark measures the first read in a fresh JVM, which includes loading the language runtime and, for
+ * script flavours, compiling the script. The warm benchmark measures repeated reads of the same POM.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ModelReaderBenchmark {
+
+  @Param({"atom", "clojure", "groovy", "kotlin", "scala", "xml41", "yaml"})
+  public String flavour;
+
+  @Param({"fixture", "large"})
+  public String pom;
+
+  private BenchmarkSupport support;
+
+  private File dir;
+
+  private File pomFile;
+
+  private ModelReader reader;
+
+  private Map<String, Object> options;
+
+  @Setup
+  public void setUp() throws Exception {
+    support = new BenchmarkSupport();
+    dir = Files.createTempDirectory("polyglot-benchmark").toFile();
+    pomFile = support.preparePom(flavour, pom, dir);
+    reader = support.getReader(pomFile);
+    options = BenchmarkSupport.options(pomFile);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    support.dispose();
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @Fork(5)
+  public Model cold() throws Exception {
+    return reader.read(pomFile, options);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 5, time = 2)
+  @Measurement(iterations = 5, time = 2)
+  public Model warm() throws Exception {
+    return reader.read(pomFile, options);
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.benchmarks;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.ModelWriter;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ModelWriter#write(java.io.Writer, Map, Model)} of each flavour, cold in a fresh JVM and warm.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ModelWriterBenchmark {
+
+  @Param({"atom", "clojure", "groovy", "kotlin", "scala", "xml41", "yaml"})
+  public String flavour;
+
+  @Param({"fixture", "large"})
+  public String pom;
+
+  private BenchmarkSupport support;
+
+  private File dir;
+
+  private Model model;
+
+  private ModelWriter writer;
+
+  private Map<String, Object> options;
+
+  @Setup
+  public void setUp() throws Exception {
+    support = new BenchmarkSupport();
+    dir = Files.createTempDirectory("polyglot-benchmark").toFile();
+    model = "fixture".equals(pom) ? support.readFixtureModel() : BenchmarkSupport.largeModel(200, 20, 30);
+    File pomFile = new File(dir, BenchmarkSupport.fileName(flavour));
+    writer = support.getWriter(pomFile);
+    options = BenchmarkSupport.options(pomFile);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    support.dispose();
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @Fork(5)
+  public String cold() throws Exception {
+    return write();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 5, time = 2)
+  @Measurement(iterations = 5, time = 2)
+  public String warm() throws Exception {
+    return write();
+  }
+
+  private String write() throws Exception {
+    StringWriter out = new StringWriter();
+    writer.write(out, options, model);
+    return out.toString();
+  }
+}
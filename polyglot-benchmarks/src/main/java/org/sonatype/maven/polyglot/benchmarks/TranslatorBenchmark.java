@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.maven.polyglot.TeslaModelTranslator;
+
+/**
+ * Measures a {@link TeslaModelTranslator#translate(File, java.util.Map, File, java.util.Map)} round trip of each flavour through {@code pom.xml}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranslatorBenchmark {
+
+  @Param({"atom", "clojure", "groovy", "kotlin", "scala", "xml41", "yaml"})
+  public String flavour;
+
+  @Param({"fixture", "large"})
+  public String pom;
+
+  private BenchmarkSupport support;
+
+  private TeslaModelTranslator translator;
+
+  private File dir;
+
+  private File pomFile;
+
+  private File xmlFile;
+
+  private File roundTripFile;
+
+  @Setup
+  public void setUp() throws Exception {
+    support = new BenchmarkSupport();
+    translator = support.getTranslator();
+    dir = Files.createTempDirectory("polyglot-benchmark").toFile();
+    pomFile = support.preparePom(flavour, pom, dir);
+    xmlFile = new File(dir, "pom.xml");
+    File roundTripDir = new File(dir, "round-trip");
+    roundTripDir.mkdirs();
+    roundTripFile = new File(roundTripDir, pomFile.getName());
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    support.dispose();
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Benchmark
+  public File roundTrip() throws Exception {
+    translator.translate(pomFile, BenchmarkSupport.options(pomFile), xmlFile, BenchmarkSupport.options(xmlFile));
+    translator.translate(xmlFile, BenchmarkSupport.options(xmlFile), roundTripFile,
+        BenchmarkSupport.options(roundTripFile));
+    return roundTripFile;
+  }
+}
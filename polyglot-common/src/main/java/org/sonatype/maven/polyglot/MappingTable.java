@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.sonatype.maven.polyglot.mapping.Mapping;
+import org.sonatype.maven.polyglot.mapping.MappingSupport;
+
+/**
+ * Immutable dispatch table over a snapshot of {@link Mapping}s, ordered by descending priority.
+ *
+ * Plain {@link MappingSupport} mappings are resolved through lookup tables indexed by option key, location
+ * extension and POM file name. Mappings that override {@link Mapping#accept(Map)} or {@link Mapping#locatePom(File)}
+ * are still asked directly, at their position in priority order, so resolution gives the same result as
+ * scanning the sorted mappings.
+ *
+ * @since 0.7.3
+ */
+final class MappingTable {
+
+  static final Comparator<Mapping> DESCENDING_PRIORITY = Comparator.comparingDouble(Mapping::getPriority).reversed();
+
+  private final Mapping[] source;
+
+  private final List<Mapping> sorted;
+
+  /** option key to index of the first mapping accepting it */
+  private final Map<String, Integer> byOptionKey = new HashMap<>();
+
+  /** location extension to index of the first mapping accepting it */
+  private final Map<String, Integer> byExtension = new HashMap<>();
+
+  /** distinct extension lengths, longest first */
+  private final int[] extensionLengths;
+
+  /** indices of mappings with a custom accept, ascending */
+  private final int[] customAccept;
+
+  /** POM file names and mappings with a custom locatePom, in probing order */
+  private final List<PomCandidate> pomCandidates = new ArrayList<>();
+
+  MappingTable(List<Mapping> mappings) {
+    List<Mapping> list = new ArrayList<>(mappings);
+    this.source = list.toArray(new Mapping[0]);
+    list.sort(DESCENDING_PRIORITY);
+    this.sorted = Collections.unmodifiableList(list);
+
+    TreeSet<Integer> lengths = new TreeSet<>(Comparator.reverseOrder());
+    List<Integer> custom = new ArrayList<>();
+    for (int i = 0; i < sorted.size(); i++) {
+      Mapping mapping = sorted.get(i);
+      if (isPlain(mapping, "accept", Map.class)) {
+        MappingSupport support = (MappingSupport) mapping;
+        for (String key : support.getAcceptOptionKeys()) {
+          byOptionKey.putIfAbsent(key, i);
+        }
+        for (String ext : support.getAcceptLocationExtensions()) {
+          byExtension.putIfAbsent(ext, i);
+          lengths.add(ext.length());
+        }
+      } else {
+        custom.add(i);
+      }
+      if (isPlain(mapping, "locatePom", File.class)) {
+        for (String name : ((MappingSupport) mapping).getPomNames()) {
+          pomCandidates.add(new PomCandidate(mapping, name));
+        }
+      } else {
+        pomCandidates.add(new PomCandidate(mapping, null));
+      }
+    }
+    this.extensionLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+    this.customAccept = custom.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * @return <code>true</code> if this table was not built from the same mappings, in the same order, as the given list
+   */
+  boolean isStale(List<Mapping> mappings) {
+    if (mappings.size() != source.length) {
+      return true;
+    }
+    int i = 0;
+    for (Mapping mapping : mappings) {
+      if (i == source.length || mapping != source[i++]) {
+        return true;
+      }
+    }
+    return i != source.length;
+  }
+
+  List<Mapping> getSortedMappings() {
+    return sorted;
+  }
+
+  List<PomCandidate> getPomCandidates() {
+    return pomCandidates;
+  }
+
+  /**
+   * @return the highest priority mapping accepting the options or <code>null</code>
+   */
+  Mapping resolve(Map<String, ?> options) {
+    int best = Integer.MAX_VALUE;
+    if (options != null) {
+      if (!byOptionKey.isEmpty()) {
+        for (String key : options.keySet()) {
+          Integer index = byOptionKey.get(key);
+          if (index != null && index < best) {
+            best = index;
+          }
+        }
+      }
+      String location = PolyglotModelUtil.getLocation(options);
+      if (location != null) {
+        for (int length : extensionLengths) {
+          if (length <= location.length()) {
+            Integer index = byExtension.get(location.substring(location.length() - length));
+            if (index != null && index < best) {
+              best = index;
+            }
+          }
+        }
+      }
+    }
+    for (int index : customAccept) {
+      if (index >= best) {
+        break;
+      }
+      if (sorted.get(index).accept(options)) {
+        return sorted.get(index);
+      }
+    }
+    return best == Integer.MAX_VALUE ? null : sorted.get(best);
+  }
+
+  private static boolean isPlain(Mapping mapping, String method, Class<?> parameterType) {
+    if (!(mapping instanceof MappingSupport)) {
+      return false;
+    }
+    try {
+      return mapping.getClass().getMethod(method, parameterType).getDeclaringClass() == MappingSupport.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * A POM file name to probe for, or a mapping to ask via {@link Mapping#locatePom(File)} if the name is
+   * <code>null</code>.
+   */
+  static final class PomCandidate {
+    final Mapping mapping;
+
+    final String name;
+
+    PomCandidate(Mapping mapping, String name) {
+      this.mapping = mapping;
+      this.name = name;
+    }
+  }
+}
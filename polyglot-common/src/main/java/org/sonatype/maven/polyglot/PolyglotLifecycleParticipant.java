@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+import org.sonatype.maven.polyglot.metrics.MetricsSummary;
+
+/**
+ * Scopes session-level polyglot state, so long-lived hosts such as mvnd start each build with a clean slate.
+ *
+ * @since 0.7.3
+ */
+@Singleton
+@Named("polyglot")
+public class PolyglotLifecycleParticipant extends AbstractMavenLifecycleParticipant {
+
+  private final PolyglotModelManager manager;
+
+  private final TeslaModelProcessor processor;
+
+  private final MetricsSummary metricsSummary;
+
+  @Inject
+  public PolyglotLifecycleParticipant(PolyglotModelManager manager, TeslaModelProcessor processor,
+      MetricsSummary metricsSummary) {
+    this.manager = manager;
+    this.processor = processor;
+    this.metricsSummary = metricsSummary;
+  }
+
+  @Override
+  public void afterSessionStart(MavenSession session) {
+    manager.clearLocatedPoms();
+    processor.clearSessionModels();
+    metricsSummary.reset();
+  }
+
+  @Override
+  public void afterSessionEnd(MavenSession session) {
+    manager.clearLocatedPoms();
+    processor.clearSessionModels();
+    metricsSummary.report();
+    metricsSummary.reset();
+  }
+}
@@ -13,15 +13,20 @@ import javax.inject.Singleton;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.maven.model.io.ModelReader;
 import org.apache.maven.model.io.ModelWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonatype.maven.polyglot.MappingTable.PomCandidate;
 import org.sonatype.maven.polyglot.mapping.Mapping;
 
 /**
@@ -40,76 +45,147 @@ public class PolyglotModelManager {
   @Inject
   protected List<Mapping> mappings;
 
+  private volatile MappingTable table;
+
+  private final Map<File, Located> locatedPoms = new ConcurrentHashMap<>();
+
   public void addMapping(final Mapping mapping) {
     assert mapping != null;
     mappings.add(mapping);
+    table = null;
   }
-  
-  private static final Comparator<Mapping> DESCENDING_PRIORITY = Comparator.comparingDouble(Mapping::getPriority).reversed(); 
 
   public List<Mapping> getSortedMappings() {
-    List<Mapping> sortedMappings = new ArrayList<>(mappings);
-    sortedMappings.sort(DESCENDING_PRIORITY);
-  return sortedMappings;
+    return new ArrayList<>(getTable().getSortedMappings());
   }
 
-  public ModelReader getReaderFor(final Map<String, ?> options) {	 
-    for (Mapping mapping : getSortedMappings()) {
-      if (mapping.accept(options)) {
-        return mapping.getReader();
-      }
+  /**
+   * Returns the dispatch table, rebuilding it if mappings were added since it was built. The injected list is
+   * dynamic, so any change of its elements is treated like an explicit {@link #addMapping(Mapping)}.
+   */
+  private MappingTable getTable() {
+    MappingTable current = table;
+    if (current == null || current.isStale(mappings)) {
+      current = new MappingTable(mappings);
+      table = current;
+      locatedPoms.clear();
+    }
+    return current;
+  }
+
+  public ModelReader getReaderFor(final Map<String, ?> options) {
+    Mapping mapping = getTable().resolve(options);
+    if (mapping != null) {
+      return mapping.getReader();
     }
 
     throw new RuntimeException("Unable to determine model input format; options=" + options);
   }
-  
-  public Properties getEnhancementPropertiesFor(final Map<String, ?> options) {	 
-    for (Mapping mapping : getSortedMappings()) {
-      if (mapping.accept(options)) {
-        return mapping.getEnhancementProperties(options);
-      }
+
+  public Properties getEnhancementPropertiesFor(final Map<String, ?> options) {
+    Mapping mapping = getTable().resolve(options);
+    if (mapping != null) {
+      return mapping.getEnhancementProperties(options);
     }
     return null;
-  }  
+  }
 
   public ModelWriter getWriterFor(final Map<String, ?> options) {
-    for (Mapping mapping : getSortedMappings()) {
-      if (mapping.accept(options)) {
-        return mapping.getWriter();
-      }
+    Mapping mapping = getTable().resolve(options);
+    if (mapping != null) {
+      return mapping.getWriter();
     }
 
     throw new RuntimeException("Unable to determine model output format; options=" + options);
   }
 
+  /**
+   * @return the POM in the directory, relative to the given directory if it is relative
+   */
   public File findPom(final File dir) {
     assert dir != null;
-
-    for (Mapping mapping : getSortedMappings()) {
-      File file = mapping.locatePom(dir);
-      if (file != null) {
-        return file;
-      }
+    File pom = locate(dir).pom;
+    if (pom != null && pom.getParentFile().equals(dir.getAbsoluteFile())) {
+      return new File(dir, pom.getName());
     }
-    return null;
+    return pom;
   }
 
   public String determineFlavourFromPom(final File dir) {
     assert dir != null;
-    for (Mapping mapping : getSortedMappings()) {
-      File file = mapping.locatePom(dir);
+    Located located = locate(dir);
+    return located.mapping != null ? located.mapping.getFlavour() : null;
+  }
+
+  /**
+   * Forgets all located POMs, called when a session starts or ends.
+   */
+  public void clearLocatedPoms() {
+    locatedPoms.clear();
+  }
+
+  private Located locate(final File dir) {
+    MappingTable current = getTable();
+    return locatedPoms.computeIfAbsent(dir.getAbsoluteFile(), d -> probe(current, d));
+  }
+
+  /**
+   * Lists the directory once and matches the names against the POM names of all mappings in priority order. Names
+   * that only match ignoring case are checked with {@link File#exists()}, which tells whether the filesystem is
+   * case-insensitive, so the result is the same as probing each name.
+   */
+  private Located probe(final MappingTable table, final File dir) {
+    String[] names = dir.list();
+    if (names == null) {
+      return Located.NONE;
+    }
+    Set<String> present = new HashSet<>(Arrays.asList(names));
+    Set<String> presentIgnoringCase = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    presentIgnoringCase.addAll(present);
+    for (PomCandidate candidate : table.getPomCandidates()) {
+      File file;
+      if (candidate.name == null) {
+        file = candidate.mapping.locatePom(dir);
+      } else if (present.contains(candidate.name)) {
+        file = new File(dir, candidate.name);
+      } else if (presentIgnoringCase.contains(candidate.name)) {
+        file = new File(dir, candidate.name);
+        file = file.exists() ? file : null;
+      } else {
+        file = null;
+      }
       if (file != null) {
-        return mapping.getFlavour();
+        return new Located(file, candidate.mapping);
       }
     }
-    return null;
+    return Located.NONE;
+  }
+
+  private static final class Located {
+    static final Located NONE = new Located(null, null);
+
+    final File pom;
+
+    final Mapping mapping;
+
+    Located(File pom, Mapping mapping) {
+      this.pom = pom;
+      this.mapping = mapping;
+    }
+  }
+
+  /**
+   * @return whether the reader for the options can read several POMs concurrently
+   */
+  public boolean isThreadSafeFor(final Map<String, ?> options) {
+    Mapping mapping = getTable().resolve(options);
+    return mapping != null && mapping.isThreadSafe();
   }
 
   public String getFlavourFor(final Map<String, ?> options) {
-    for (Mapping mapping : getSortedMappings()) {
-      if (mapping.accept(options)) {
-        return mapping.getFlavour();
-      }
+    Mapping mapping = getTable().resolve(options);
+    if (mapping != null) {
+      return mapping.getFlavour();
     }
 
     throw new RuntimeException("Unable determine model input format; options=" + options);
@@ -7,8 +7,10 @@
  */
 package org.sonatype.maven.polyglot;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.building.ModelProcessor;
 import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.plugin.LegacySupport;
 
 import java.io.File;
 import java.net.URL;
@@ -62,4 +64,16 @@ public class PolyglotModelUtil {
     }
     return null;
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns whether the flag is set to <code>true</code> for the current build, by the user properties of the session
+   * or else by the system properties. Long-lived JVMs like mvnd run many builds, so the flag is read on each call.
+   *
+   * @param legacySupport the holder of the current session, may be <code>null</code> outside of a build
+   */
+  public static boolean isEnabled(final LegacySupport legacySupport, final String property) {
+    MavenSession session = legacySupport != null ? legacySupport.getSession() : null;
+    String value = session != null ? session.getUserProperties().getProperty(property) : null;
+    return Boolean.parseBoolean(value != null ? value : System.getProperty(property));
+  }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.plugin.LegacySupport;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Walks the module tree of a reactor and parses all polyglot POMs concurrently, ahead of the sequential model
+ * building of Maven. Runs only for parallel builds, with as many threads as the build uses. POMs whose mapping is not
+ * {@link org.sonatype.maven.polyglot.mapping.Mapping#isThreadSafe() thread-safe} are parsed one at a time per flavour.
+ *
+ * Failures are ignored here, the POM is then parsed again during model building which reports the problem.
+ *
+ * @since 0.7.3
+ */
+@Singleton
+@Named
+public class ReactorPreParser {
+
+  /**
+   * Number of threads used to pre-parse, defaults to the degree of concurrency of the build. Values below 2 disable
+   * pre-parsing.
+   */
+  public static final String THREADS_PROPERTY = "polyglot.preparse.threads";
+
+  private static final Logger log = LoggerFactory.getLogger(ReactorPreParser.class);
+
+  private final TeslaModelProcessor processor;
+
+  private final PolyglotModelManager manager;
+
+  private final LegacySupport legacySupport;
+
+  @Inject
+  public ReactorPreParser(TeslaModelProcessor processor, PolyglotModelManager manager, LegacySupport legacySupport) {
+    this.processor = processor;
+    this.manager = manager;
+    this.legacySupport = legacySupport;
+  }
+
+  public void preParse(List<File> pomFiles, boolean recursive) {
+    int threads = getThreads();
+    if (threads < 2) {
+      return;
+    }
+    AtomicInteger count = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "polyglot-preparse-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    Set<File> seen = ConcurrentHashMap.newKeySet();
+    Queue<Future<?>> pending = new ConcurrentLinkedQueue<>();
+    try {
+      for (File pomFile : pomFiles) {
+        submit(executor, pending, seen, pomFile, recursive);
+      }
+      // modules are queued before the task of their parent completes, so an empty queue means all are done
+      Future<?> future;
+      while ((future = pending.poll()) != null) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          log.debug("Pre-parsing failed", e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+    log.debug("Pre-parsed {} POMs with {} threads", seen.size(), threads);
+  }
+
+  private int getThreads() {
+    MavenSession session = legacySupport.getSession();
+    int degree = session != null ? session.getRequest().getDegreeOfConcurrency() : 1;
+    return Integer.getInteger(THREADS_PROPERTY, degree);
+  }
+
+  private void submit(ExecutorService executor, Queue<Future<?>> pending, Set<File> seen, File pomFile,
+      boolean recursive) {
+    if (seen.add(pomFile.getAbsoluteFile())) {
+      pending.add(executor.submit(() -> {
+        visit(executor, pending, seen, pomFile, recursive);
+        return null;
+      }));
+    }
+  }
+
+  private void visit(ExecutorService executor, Queue<Future<?>> pending, Set<File> seen, File pomFile,
+      boolean recursive) throws IOException, XmlPullParserException {
+    Model model;
+    Optional<File> polyglotPom = processor.getPolyglotPomFile(pomFile);
+    if (polyglotPom.isPresent()) {
+      model = processor.preParse(polyglotPom.get());
+    } else if (recursive && pomFile.isFile()) {
+      // only needed for its modules
+      try (InputStream in = new FileInputStream(pomFile)) {
+        model = new MavenXpp3Reader().read(in, false);
+      }
+    } else {
+      return;
+    }
+    if (!recursive) {
+      return;
+    }
+    File basedir = pomFile.getAbsoluteFile().getParentFile();
+    Set<String> modules = new LinkedHashSet<>(model.getModules());
+    for (Profile profile : model.getProfiles()) {
+      modules.addAll(profile.getModules());
+    }
+    for (String module : modules) {
+      File moduleFile = new File(basedir, module);
+      if (moduleFile.isDirectory()) {
+        moduleFile = manager.findPom(moduleFile);
+      }
+      if (moduleFile != null && moduleFile.isFile()) {
+        submit(executor, pending, seen, moduleFile, true);
+      }
+    }
+  }
+}
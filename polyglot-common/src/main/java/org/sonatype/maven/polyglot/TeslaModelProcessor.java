@@ -19,8 +19,14 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.apache.maven.model.Model;
@@ -30,11 +36,17 @@ import org.apache.maven.model.building.ModelSource;
 import org.apache.maven.model.io.ModelParseException;
 import org.apache.maven.model.io.ModelReader;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
-import org.codehaus.plexus.util.FileUtils;
+import org.apache.maven.plugin.LegacySupport;
 import org.eclipse.sisu.Typed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.codehaus.plexus.util.ReaderFactory;
+import org.sonatype.maven.polyglot.cache.ModelCache;
+import org.sonatype.maven.polyglot.execute.ExecuteManager;
+import org.sonatype.maven.polyglot.io.FileSupport;
+import org.sonatype.maven.polyglot.metrics.Counter;
+import org.sonatype.maven.polyglot.metrics.Phase;
+import org.sonatype.maven.polyglot.metrics.PolyglotMetrics;
 
 /**
  * Polyglot model processor.
@@ -59,23 +71,60 @@ public class TeslaModelProcessor implements ModelProcessor {
       NEW_LINE + "-->";
   private static final String POM_FILE_PREFIX = ".polyglot.";
 
+  /**
+   * Serves translated models from memory instead of round tripping them through {@code .polyglot.*} files. Read per
+   * build from the user properties of the session, or else the system properties.
+   */
+  public static final String IN_MEMORY_PROPERTY = "polyglot.inMemory";
+
   @Inject
   private PolyglotModelManager manager;
 
+  @Inject
+  private ModelCache modelCache;
+
+  @Inject
+  private ExecuteManager executeManager;
+
+  @Inject
+  private PolyglotMetrics metrics;
+
+  @Inject
+  private LegacySupport legacySupport;
+
+  private final Map<File, byte[]> renderedModels = new ConcurrentHashMap<>();
+
+  private final Map<File, Model> preParsedModels = new ConcurrentHashMap<>();
+
+  private final Map<String, Object> preParseLocks = new ConcurrentHashMap<>();
+
   private Logger log = LoggerFactory.getLogger( TeslaModelProcessor.class );
 
   @Override
   public File locatePom(final File dir) {
     assert manager != null;
 
+    long start = System.nanoTime();
+    try {
+      return doLocatePom(dir);
+    } finally {
+      metrics.phase(dir, Phase.LOCATE, start);
+    }
+  }
+
+  private File doLocatePom(final File dir) {
 	File pomFile = manager.findPom(dir);
     if (pomFile == null) {
 		return new File(dir, DEFAULT_POM_FILE);
     }
-	if (pomFile.getName().equals(DEFAULT_POM_FILE) && pomFile.getParentFile().equals(dir)) {
+	if (pomFile.getName().equals(DEFAULT_POM_FILE) && pomFile.getAbsoluteFile().getParentFile().equals(dir.getAbsoluteFile())) {
       // behave like proper maven in case there is no pom from manager
       return pomFile;
     }
+    if (isInMemory()) {
+      // the model is served from memory by read, see materialize
+      return pomFile;
+    }
     File polyglotPomFile = new File(pomFile.getParentFile(), POM_FILE_PREFIX + pomFile.getName());
     try {
       if (!polyglotPomFile.exists() && polyglotPomFile.createNewFile()) {
@@ -87,6 +136,10 @@ public class TeslaModelProcessor implements ModelProcessor {
     return polyglotPomFile;
   }
 
+  private boolean isInMemory() {
+    return PolyglotModelUtil.isEnabled(legacySupport, IN_MEMORY_PROPERTY);
+  }
+
   @Override
   public Model read(final File input, final Map<String, ?> options) throws IOException, ModelParseException {
     Model model;
@@ -106,9 +159,6 @@ public class TeslaModelProcessor implements ModelProcessor {
   }
 
   @Override
-  @SuppressWarnings({
-      "unchecked", "rawtypes"
-  })
   public Model read(final Reader input, final Map<String, ?> options) throws IOException, ModelParseException {
     assert manager != null;
     Optional<File> optionalPomXml = getPomXmlFile(options);
@@ -117,42 +167,202 @@ public class TeslaModelProcessor implements ModelProcessor {
       log.debug(pom.toString());
       File realPom = new File(pom.getPath().replaceFirst(Pattern.quote(POM_FILE_PREFIX), ""));
 
-      ((Map) options).put(ModelProcessor.SOURCE, new FileModelSource(realPom));
+      Model model = readPolyglot(realPom, options);
 
-      ModelReader reader = manager.getReaderFor(options);
-      Model model = reader.read(realPom, options);
-      PolyglotPropertiesEnhancer.enhanceModel(manager.getEnhancementPropertiesFor(options), model);
-      MavenXpp3Writer xmlWriter = new MavenXpp3Writer();
-      StringWriter xml = new StringWriter();
-      xmlWriter.write(xml, model);
-
-      FileUtils.fileWrite(pom, xml.toString());
-
-      // dump pom if filename is given via the pom properties
-      String dump = model.getProperties().getProperty("polyglot.dump.pom");
-      if (dump == null) {
-        // just nice to dump the pom.xml via commandline switch
-        dump = System.getProperty("polyglot.dump.pom");
-      }
-      if (dump != null) {
-        File dumpPom = new File(pom.getParentFile(), dump);
-        if (!dumpPom.exists() || !FileUtils.fileRead(dumpPom).equals(xml.toString().replace("?>", WARNING))) {
-          dumpPom.setWritable(true);
-          FileUtils.fileWrite(dumpPom, xml.toString().replace("?>", WARNING));
-          if ("true".equals(model.getProperties().getProperty("polyglot.dump.readonly"))) {
-            dumpPom.setReadOnly();
-          }
-        }
-      }
+      // only touch the file if the content changed, to keep its timestamp stable for IDEs and incremental builds
+      byte[] xml = render(model, realPom);
+      long start = System.nanoTime();
+      FileSupport.writeIfChanged(pom, xml);
+      metrics.phase(realPom, Phase.WRITE, start);
 
       model.setPomFile(pom);
       return model;
+    }
+    Optional<File> polyglotPom = isInMemory() ? getPolyglotPomFile(options) : Optional.empty();
+    if (polyglotPom.isPresent()) {
+      File realPom = polyglotPom.get();
+      log.debug(realPom.toString());
+
+      Model model = readPolyglot(realPom, options);
+      renderedModels.put(realPom, render(model, realPom));
+
+      model.setPomFile(realPom);
+      return model;
     } else {
       ModelReader reader = manager.getReaderFor(options);
       return reader.read(input, options);
     }
   }
 
+  @SuppressWarnings({
+      "unchecked", "rawtypes"
+  })
+  private Model readPolyglot(File realPom, Map<String, ?> options) throws IOException {
+    ((Map) options).put(ModelProcessor.SOURCE, new FileModelSource(realPom));
+
+    Model model = preParsedModels.get(realPom);
+    if (model != null) {
+      log.debug("Using pre-parsed model for {}", realPom);
+      model = model.clone();
+    } else {
+      model = parse(realPom, options);
+    }
+    long start = System.nanoTime();
+    PolyglotPropertiesEnhancer.enhanceModel(manager.getEnhancementPropertiesFor(options), model);
+    metrics.phase(realPom, Phase.ENHANCE, start);
+    return model;
+  }
+
+  private Model parse(File realPom, Map<String, ?> options) throws IOException {
+    String flavour = manager.getFlavourFor(options);
+    Model model = modelCache.get(realPom, flavour);
+    if (model == null) {
+      ModelReader reader = manager.getReaderFor(options);
+      Collection<File> includes;
+      modelCache.beginTracking();
+      File previous = metrics.enter(realPom);
+      long start = System.nanoTime();
+      try {
+        model = reader.read(realPom, options);
+      } finally {
+        metrics.phase(realPom, Phase.READ, start);
+        metrics.exit(previous);
+        includes = modelCache.endTracking();
+      }
+      if (modelCache.isEnabled()) {
+        metrics.counter(realPom, Counter.CACHE_MISS);
+        if (executeManager.getTasks(model).isEmpty()) {
+          StringWriter xml = new StringWriter();
+          new MavenXpp3Writer().write(xml, model);
+          modelCache.put(realPom, flavour, xml.toString().getBytes(StandardCharsets.UTF_8), includes);
+        } else {
+          // the tasks only exist in the reader's evaluation, a cached model would refer to tasks nobody registered
+          log.debug("Not caching {}, it registers execute tasks", realPom);
+        }
+      }
+    } else {
+      metrics.counter(realPom, Counter.CACHE_HIT);
+      log.debug("Using cached model for {}", realPom);
+    }
+    return model;
+  }
+
+  /**
+   * Parses the given polyglot POM ahead of model building, so the following {@link #read(Reader, Map)} for it is
+   * served from the parsed model. May be called concurrently, POMs of mappings that are not thread-safe are then
+   * parsed one at a time.
+   *
+   * @return the raw model, without polyglot properties
+   */
+  Model preParse(File realPom) throws IOException {
+    Model model = preParsedModels.get(realPom);
+    if (model == null) {
+      Map<String, Object> options = new HashMap<>();
+      options.put(ModelProcessor.SOURCE, new FileModelSource(realPom));
+      if (manager.isThreadSafeFor(options)) {
+        model = parse(realPom, options);
+      } else {
+        synchronized (preParseLocks.computeIfAbsent(manager.getFlavourFor(options), flavour -> new Object())) {
+          model = parse(realPom, options);
+        }
+      }
+      preParsedModels.put(realPom, model);
+    }
+    return model;
+  }
+
+  /**
+   * Renders the model as POM XML and writes the dump if one is requested.
+   */
+  private byte[] render(Model model, File realPom) throws IOException {
+    long start = System.nanoTime();
+    StringWriter writer = new StringWriter();
+    new MavenXpp3Writer().write(writer, model);
+    String xml = writer.toString();
+    metrics.phase(realPom, Phase.SERIALIZE, start);
+    Charset encoding = Charset.forName(model.getModelEncoding());
+
+    // dump pom if filename is given via the pom properties
+    String dump = model.getProperties().getProperty("polyglot.dump.pom");
+    if (dump == null) {
+      // just nice to dump the pom.xml via commandline switch
+      dump = System.getProperty("polyglot.dump.pom");
+    }
+    if (dump != null) {
+      File dumpPom = new File(realPom.getParentFile(), dump);
+      byte[] content = xml.replace("?>", WARNING).getBytes(encoding);
+      if (FileSupport.writeIfChanged(dumpPom, content)) {
+        if ("true".equals(model.getProperties().getProperty("polyglot.dump.readonly"))) {
+          dumpPom.setReadOnly();
+        } else {
+          dumpPom.setWritable(true);
+        }
+      }
+    }
+    return xml.getBytes(encoding);
+  }
+
+  /**
+   * Writes the model rendered in memory for the given polyglot POM to its {@code .polyglot.*} file, for consumers
+   * outside model building that need a POM on disk, like install and deploy.
+   *
+   * @return the written file, or the given one if it was not read in memory mode
+   */
+  File materialize(File polyglotPom) {
+    byte[] xml = renderedModels.get(polyglotPom);
+    if (xml == null) {
+      return polyglotPom;
+    }
+    File pom = new File(polyglotPom.getParentFile(), POM_FILE_PREFIX + polyglotPom.getName());
+    long start = System.nanoTime();
+    try {
+      boolean existed = pom.exists();
+      FileSupport.writeIfChanged(pom, xml);
+      metrics.phase(polyglotPom, Phase.WRITE, start);
+      if (!existed) {
+        pom.deleteOnExit();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("error writing " + pom, e);
+    }
+    return pom;
+  }
+
+  /**
+   * Forgets all models rendered in memory or parsed ahead of model building.
+   */
+  public void clearSessionModels() {
+    renderedModels.clear();
+    preParsedModels.clear();
+  }
+
+  /**
+   * Returns the polyglot POM the given POM file was or will be translated from, if any.
+   */
+  Optional<File> getPolyglotPomFile(File pomFile) {
+    String filename = pomFile.getName();
+    if (filename.startsWith(POM_FILE_PREFIX)) {
+      return Optional.of(new File(pomFile.getParentFile(), filename.substring(POM_FILE_PREFIX.length())));
+    }
+    File parent = pomFile.getParentFile();
+    if (parent == null || filename.equals(DEFAULT_POM_FILE) || filename.endsWith(".pom")) {
+      return Optional.empty();
+    }
+    File polyglotPom = manager.findPom(parent);
+    if (polyglotPom != null && polyglotPom.getName().equals(filename)) {
+      return Optional.of(polyglotPom);
+    }
+    return Optional.empty();
+  }
+
+  private Optional<File> getPolyglotPomFile(Map<String, ?> options) {
+    ModelSource source = (ModelSource) options.get(ModelProcessor.SOURCE);
+    if (source == null) {
+      return Optional.empty();
+    }
+    return getPolyglotPomFile(new File(source.getLocation()));
+  }
+
   private Optional<File> getPomXmlFile(Map<String, ?> options) {
     ModelSource source = (ModelSource) options.get(ModelProcessor.SOURCE);
     if (source != null) {
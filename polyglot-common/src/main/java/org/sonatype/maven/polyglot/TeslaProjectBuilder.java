@@ -25,10 +25,14 @@ public class TeslaProjectBuilder implements ProjectBuilder {
 
     private final DefaultProjectBuilder defaultProjectBuilder;
 
+    private final ReactorPreParser reactorPreParser;
+
     @Inject
-    public TeslaProjectBuilder(TeslaModelProcessor teslaModelProcessor, DefaultProjectBuilder defaultProjectBuilder) {
+    public TeslaProjectBuilder(TeslaModelProcessor teslaModelProcessor, DefaultProjectBuilder defaultProjectBuilder,
+                               ReactorPreParser reactorPreParser) {
         this.teslaModelProcessor = requireNonNull(teslaModelProcessor);
         this.defaultProjectBuilder = requireNonNull(defaultProjectBuilder);
+        this.reactorPreParser = requireNonNull(reactorPreParser);
     }
 
     @Override
@@ -53,6 +57,7 @@ public class TeslaProjectBuilder implements ProjectBuilder {
 
     @Override
     public List<ProjectBuildingResult> build(List<File> pomFiles, boolean recursive, ProjectBuildingRequest request) throws ProjectBuildingException {
+        reactorPreParser.preParse(pomFiles, recursive);
         List<ProjectBuildingResult> results = defaultProjectBuilder.build(pomFiles, recursive, request);
         return results.stream().map(this::convert).collect(Collectors.toList());
     }
@@ -66,7 +71,9 @@ public class TeslaProjectBuilder implements ProjectBuilder {
 
         // When running with the argument `-f <pomFile>`, we must restore the location of the generated pom xml file.
         // Otherwise, it retains a reference to the polyglot pom, which causes a `409 Conflict` error when deployed.
-        File pomFile = teslaModelProcessor.getPomXmlFile(result.getPomFile()).orElse(result.getPomFile());
+        // Models served from memory are written out once here, as install and deploy need a POM on disk.
+        File pomFile = teslaModelProcessor.getPomXmlFile(result.getPomFile())
+                .orElseGet(() -> teslaModelProcessor.materialize(result.getPomFile()));
         project.setPomFile(pomFile);
         project.getModel().setPomFile(pomFile);
 
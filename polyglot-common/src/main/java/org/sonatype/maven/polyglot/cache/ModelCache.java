@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.cache;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonatype.maven.polyglot.Constants;
+import org.sonatype.maven.polyglot.io.FileSupport;
+
+/**
+ * Persistent, content-addressed cache of translated polyglot models.
+ *
+ * Entries are keyed by the polyglot version, the reader flavour, the location and the content of the
+ * polyglot POM. Each entry also records the files the reader included while evaluating the POM (see
+ * {@link #recordInclude(File)}) together with their digests, so an entry is only served while all of them are
+ * unchanged. The model itself is stored as gzipped POM XML, which is exactly what Maven reads back anyway.
+ *
+ * The cache is disabled unless {@code polyglot.cache} is set to {@code true}. Only enable it for POMs whose
+ * result depends on nothing but their own content and their recorded includes. The location defaults to
+ * {@code ~/.m2/polyglot/model-cache} and can be changed via {@code polyglot.cache.dir}.
+ *
+ * @since 0.7.3
+ */
+@Singleton
+@Named
+public class ModelCache {
+
+  public static final String ENABLED_PROPERTY = "polyglot.cache";
+
+  public static final String DIRECTORY_PROPERTY = "polyglot.cache.dir";
+
+  private static final String ENTRY_SUFFIX = ".pom.gz";
+
+  private static final ThreadLocal<Set<File>> INCLUDES = new ThreadLocal<>();
+
+  private final Logger log = LoggerFactory.getLogger(ModelCache.class);
+
+  private final File directory;
+
+  public ModelCache() {
+    this(Boolean.getBoolean(ENABLED_PROPERTY) ? getDefaultDirectory() : null);
+  }
+
+  /**
+   * @param directory the cache directory or <code>null</code> to disable the cache
+   */
+  public ModelCache(File directory) {
+    this.directory = directory;
+  }
+
+  private static File getDefaultDirectory() {
+    String dir = System.getProperty(DIRECTORY_PROPERTY);
+    if (dir != null) {
+      return new File(dir);
+    }
+    return new File(System.getProperty("user.home"), ".m2" + File.separator + "polyglot" + File.separator + "model-cache");
+  }
+
+  public boolean isEnabled() {
+    return directory != null;
+  }
+
+  /**
+   * Records a file that contributes to the model currently being read on this thread. Readers supporting includes
+   * call this for each included file; it is a no-op while no cacheable read is in progress.
+   */
+  public static void recordInclude(File include) {
+    Set<File> includes = INCLUDES.get();
+    if (includes != null && include != null) {
+      includes.add(include.getAbsoluteFile());
+    }
+  }
+
+  /**
+   * Starts tracking includes on the current thread, must be paired with {@link #endTracking()}.
+   */
+  public void beginTracking() {
+    if (isEnabled()) {
+      INCLUDES.set(new LinkedHashSet<>());
+    }
+  }
+
+  /**
+   * Stops tracking includes on the current thread.
+   *
+   * @return the includes recorded since {@link #beginTracking()}
+   */
+  public Collection<File> endTracking() {
+    Set<File> includes = INCLUDES.get();
+    INCLUDES.remove();
+    return includes;
+  }
+
+  /**
+   * Looks up the model of the given polyglot POM.
+   *
+   * @return the cached model or <code>null</code> if there is no valid entry
+   */
+  public Model get(File source, String flavour) {
+    if (!isEnabled()) {
+      return null;
+    }
+    try {
+      File entry = getEntryFile(source, flavour);
+      if (!entry.isFile()) {
+        return null;
+      }
+      try (DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(entry.toPath()))))) {
+        int includeCount = in.readInt();
+        for (int i = 0; i < includeCount; i++) {
+          File include = new File(in.readUTF());
+          String digest = in.readUTF();
+          if (!include.isFile() || !digest.equals(FileSupport.digest(include))) {
+            log.debug("Stale model cache entry for {}, {} changed", source, include);
+            return null;
+          }
+        }
+        byte[] xml = new byte[in.readInt()];
+        in.readFully(xml);
+        return new MavenXpp3Reader().read(new ByteArrayInputStream(xml), false);
+      }
+    } catch (IOException | XmlPullParserException e) {
+      log.debug("Ignoring unreadable model cache entry for {}", source, e);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the model of the given polyglot POM, rendered as POM XML.
+   */
+  public void put(File source, String flavour, byte[] xml, Collection<File> includes) {
+    if (!isEnabled()) {
+      return;
+    }
+    try {
+      File entry = getEntryFile(source, flavour);
+      Files.createDirectories(directory.toPath());
+      Path temp = Files.createTempFile(directory.toPath(), entry.getName(), ".tmp");
+      try {
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))) {
+          Collection<File> files = includes == null ? new LinkedHashSet<>() : includes;
+          out.writeInt(files.size());
+          for (File include : files) {
+            out.writeUTF(include.getPath());
+            out.writeUTF(FileSupport.digest(include));
+          }
+          out.writeInt(xml.length);
+          out.write(xml);
+        }
+        FileSupport.move(temp, entry.toPath());
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      log.debug("Unable to write model cache entry for {}", source, e);
+    }
+  }
+
+  private File getEntryFile(File source, String flavour) throws IOException {
+    MessageDigest md = FileSupport.newDigest();
+    update(md, Constants.getVersion());
+    update(md, flavour);
+    update(md, source.getCanonicalPath());
+    update(md, FileSupport.digest(source));
+    return new File(directory, FileSupport.toHex(md.digest()) + ENTRY_SUFFIX);
+  }
+
+  private static void update(MessageDigest md, String value) {
+    md.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    md.update((byte) 0);
+  }
+}
@@ -12,10 +12,13 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.maven.model.Build;
 import org.apache.maven.model.BuildBase;
@@ -46,7 +49,10 @@ public class ExecuteManagerImpl implements ExecuteManager {
   @Inject
   protected PolyglotModelManager manager;
 
-  private final Map<String, List<ExecuteTask>> modelTasks = new HashMap<>();
+  /**
+   * Registered tasks by artifact id. Arrays are replaced, never modified, so lookups need no locking.
+   */
+  private final Map<String, Registration[]> modelTasks = new ConcurrentHashMap<>();
 
   @Override
   public void register(final Model model, final List<ExecuteTask> tasks) {
@@ -56,36 +62,44 @@ public class ExecuteManagerImpl implements ExecuteManager {
     // Need to copy the contents to avoid the elements
     List<ExecuteTask> copy = new ArrayList<>(tasks.size());
     copy.addAll(tasks);
-    modelTasks.put(model.getId(), Collections.unmodifiableList(copy));
+    Registration registration = new Registration(model, Collections.unmodifiableList(copy));
+    modelTasks.merge(String.valueOf(model.getArtifactId()), new Registration[] {registration}, (existing, added) -> {
+      for (int i = 0; i < existing.length; i++) {
+        if (existing[i].sameCoordinates(registration)) {
+          Registration[] replaced = existing.clone();
+          replaced[i] = registration;
+          return replaced;
+        }
+      }
+      Registration[] extended = Arrays.copyOf(existing, existing.length + 1);
+      extended[existing.length] = registration;
+      return extended;
+    });
   }
 
   @Override
   public List<ExecuteTask> getTasks(final Model model) {
     assert model != null;
 
-    List<ExecuteTask> tasks = modelTasks.get(model.getId());
+    Registration[] registrations = modelTasks.get(String.valueOf(model.getArtifactId()));
+    if (registrations == null) {
+      return Collections.emptyList();
+    }
 
     // If we cannot find the model then look for the model where it has been registered with less
-    // specificity.
+    // specificity: without group id, without version, and without both.
+    String groupId = model.getGroupId();
+    String packaging = model.getPackaging();
+    String version = model.getVersion();
+    List<ExecuteTask> tasks = find(registrations, groupId, packaging, version);
     if (tasks == null) {
-      Model inheritingModel = new Model();
-      inheritingModel.setArtifactId(model.getArtifactId());
-      inheritingModel.setPackaging(model.getPackaging());
-      inheritingModel.setVersion(model.getVersion());
-      tasks = modelTasks.get(inheritingModel.getId());
+      tasks = find(registrations, null, packaging, version);
     }
     if (tasks == null) {
-      Model inheritingModel = new Model();
-      inheritingModel.setArtifactId(model.getArtifactId());
-      inheritingModel.setGroupId(model.getGroupId());
-      inheritingModel.setPackaging(model.getPackaging());
-      tasks = modelTasks.get(inheritingModel.getId());
+      tasks = find(registrations, groupId, packaging, null);
     }
     if (tasks == null) {
-      Model inheritingModel = new Model();
-      inheritingModel.setArtifactId(model.getArtifactId());
-      inheritingModel.setPackaging(model.getPackaging());
-      tasks = modelTasks.get(inheritingModel.getId());
+      tasks = find(registrations, null, packaging, null);
     }
 
     // Well, we've tried our hardest...
@@ -96,6 +110,16 @@ public class ExecuteManagerImpl implements ExecuteManager {
     return tasks;
   }
 
+  private static List<ExecuteTask> find(Registration[] registrations, String groupId, String packaging,
+      String version) {
+    for (Registration registration : registrations) {
+      if (registration.matches(groupId, packaging, version)) {
+        return registration.tasks;
+      }
+    }
+    return null;
+  }
+
   @Override
   public void install(final Model model, final Map<String, ?> options) {
     assert model != null;
@@ -214,4 +238,33 @@ public class ExecuteManagerImpl implements ExecuteManager {
     }
     return plugin;
   }
-}
\ No newline at end of file
+
+  /**
+   * Tasks registered for a model, with the coordinates that make up {@link Model#getId()}.
+   */
+  private static final class Registration {
+    private final String groupId;
+
+    private final String packaging;
+
+    private final String version;
+
+    private final List<ExecuteTask> tasks;
+
+    Registration(Model model, List<ExecuteTask> tasks) {
+      this.groupId = model.getGroupId();
+      this.packaging = model.getPackaging();
+      this.version = model.getVersion();
+      this.tasks = tasks;
+    }
+
+    boolean matches(String groupId, String packaging, String version) {
+      return Objects.equals(this.groupId, groupId) && Objects.equals(this.packaging, packaging)
+          && Objects.equals(this.version, version);
+    }
+
+    boolean sameCoordinates(Registration other) {
+      return matches(other.groupId, other.packaging, other.version);
+    }
+  }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.io;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * File helpers shared by the model processor and the model cache.
+ *
+ * @since 0.7.3
+ */
+public final class FileSupport {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private FileSupport() {
+  }
+
+  /**
+   * Writes the content to the file unless the file already has exactly that content. The file is replaced
+   * atomically where the filesystem supports it, so readers never observe a partially written file. The file keeps
+   * its permissions, a new file gets the default permissions of the process.
+   *
+   * @return <code>true</code> if the file was written, <code>false</code> if it was already up to date
+   */
+  public static boolean writeIfChanged(File file, byte[] content) throws IOException {
+    if (contentEquals(file, content)) {
+      return false;
+    }
+    Path target = file.toPath();
+    Path dir = target.toAbsolutePath().getParent();
+    // not Files.createTempFile, which restricts the file to its owner regardless of the umask
+    Path temp = dir.resolve("." + file.getName() + "." + UUID.randomUUID() + ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW)) {
+        out.write(content);
+      }
+      copyPermissions(target, temp);
+      move(temp, target);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    return true;
+  }
+
+  private static void copyPermissions(Path from, Path to) throws IOException {
+    PosixFileAttributeView view = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+    if (view == null) {
+      return;
+    }
+    try {
+      view.setPermissions(Files.getPosixFilePermissions(from));
+    } catch (NoSuchFileException e) {
+      // new file, keep the default permissions
+    }
+  }
+
+  /**
+   * Compares the file with the given content without loading the file into memory. Files of a different size
+   * are rejected without reading them.
+   */
+  public static boolean contentEquals(File file, byte[] content) throws IOException {
+    if (!file.isFile() || file.length() != content.length) {
+      return false;
+    }
+    byte[] buffer = new byte[Math.min(BUFFER_SIZE, Math.max(content.length, 1))];
+    int offset = 0;
+    try (InputStream in = Files.newInputStream(file.toPath())) {
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        if (offset + n > content.length) {
+          return false;
+        }
+        for (int i = 0; i < n; i++) {
+          if (buffer[i] != content[offset + i]) {
+            return false;
+          }
+        }
+        offset += n;
+      }
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+    return offset == content.length;
+  }
+
+  /**
+   * Moves the source over the target, atomically if the filesystem supports it.
+   */
+  public static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Deletes the least recently modified entries of the directory accepted by the filter beyond the given number.
+   * Entries that are directories are deleted with their content. Entries that cannot be deleted, for example because
+   * another process uses them, are left for a later call.
+   */
+  public static void prune(File dir, FileFilter filter, int maxEntries) {
+    File[] entries = dir.listFiles(filter);
+    if (entries == null || entries.length <= maxEntries) {
+      return;
+    }
+    long[] modified = new long[entries.length];
+    Integer[] order = new Integer[entries.length];
+    for (int i = 0; i < entries.length; i++) {
+      modified[i] = entries[i].lastModified();
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> modified[i]));
+    for (int i = 0; i < entries.length - Math.max(maxEntries, 0); i++) {
+      delete(entries[order[i]]);
+    }
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  /**
+   * @return the hex encoded SHA-256 digest of the file content
+   */
+  public static String digest(File file) throws IOException {
+    MessageDigest md = newDigest();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try (InputStream in = Files.newInputStream(file.toPath())) {
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        md.update(buffer, 0, n);
+      }
+    }
+    return toHex(md.digest());
+  }
+
+  public static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compiles the polyglot POMs of a script based flavour ahead of time, so its reader can load the compiled form on later
+ * builds instead of starting the compiler. Implementations are named after the flavour, like the readers.
+ *
+ * @since 0.7.3
+ */
+public interface ModelPrecompiler {
+
+  /**
+   * Compiles the POM and the scripts it includes, storing the results where the reader looks for them.
+   *
+   * @return the files written
+   */
+  List<File> precompile(File pom) throws IOException;
+}
@@ -69,6 +69,15 @@ public interface Mapping {
    */
   String getFlavour();
 
+  /**
+   * @return <code>true</code> if the reader of this mapping can read several POMs concurrently, the readers of other
+   *         mappings are never called concurrently when the reactor is pre-parsed
+   * @since 0.7.3
+   */
+  default boolean isThreadSafe() {
+    return false;
+  }
+
   /**
    * A properties object can enhance the returned polyglot model by e.g. a user defined file read by the mapping, supported keys are
    * <ul>
@@ -40,6 +40,8 @@ public abstract class MappingSupport implements Mapping {
 
   private float priority;
 
+  private boolean threadSafe;
+
   @Inject
   private PlexusContainer container;
 
@@ -145,6 +147,15 @@ public abstract class MappingSupport implements Mapping {
     this.priority = priority;
   }
 
+  @Override
+  public boolean isThreadSafe() {
+    return threadSafe;
+  }
+
+  protected void setThreadSafe(boolean threadSafe) {
+    this.threadSafe = threadSafe;
+  }
+
   public String getLocation(final Map<?, ?> options) {
     if (options != null) {
       Object tmp = options.get(ModelProcessor.SOURCE);
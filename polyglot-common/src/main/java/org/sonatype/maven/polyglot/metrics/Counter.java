@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.metrics;
+
+/**
+ * Counted events of loading a polyglot model.
+ *
+ * @since 0.7.3
+ */
+public enum Counter {
+  /** The model was served from the model cache. */
+  CACHE_HIT,
+  /** The model was not in the model cache and had to be read. */
+  CACHE_MISS,
+  /** A class loader was created for a compiled script. */
+  SCRIPT_LOADER_CREATED,
+  /** A script class loader was evicted and closed. */
+  SCRIPT_LOADER_EVICTED,
+  /** A compiled script class was handed to a new script class loader. */
+  SCRIPT_CLASS_DEFINED
+}
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.metrics;
+
+import java.io.File;
+
+/**
+ * Receives the timings and counts recorded while loading polyglot models. Implementations are looked up as
+ * components, are called from any thread and must be cheap.
+ *
+ * @since 0.7.3
+ */
+public interface MetricsListener {
+
+  /**
+   * @param pom the polyglot POM the phase ran for, or <code>null</code> if unknown
+   */
+  void onPhase(File pom, Phase phase, long nanos);
+
+  /**
+   * @param pom the polyglot POM the event happened for, or <code>null</code> if unknown
+   */
+  void onCount(File pom, Counter counter);
+}
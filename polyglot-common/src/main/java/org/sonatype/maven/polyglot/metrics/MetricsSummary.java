@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.metrics;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates the metrics of a session and reports them as a table in the build log and optionally as JSON.
+ *
+ * Disabled unless {@code polyglot.metrics} is set to {@code true} or {@code polyglot.metrics.json} names the file to
+ * write the JSON report to.
+ *
+ * @since 0.7.3
+ */
+@Singleton
+@Named("summary")
+public class MetricsSummary implements MetricsListener {
+
+  public static final String ENABLED_PROPERTY = "polyglot.metrics";
+
+  public static final String JSON_PROPERTY = "polyglot.metrics.json";
+
+  private static final int SLOWEST_POMS = 5;
+
+  private final Logger log = LoggerFactory.getLogger(MetricsSummary.class);
+
+  private final boolean enabled;
+
+  private final File json;
+
+  private final Map<Phase, Stats> phases = new EnumMap<>(Phase.class);
+
+  private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+  /** read time by POM */
+  private final Map<File, LongAdder> reads = new ConcurrentHashMap<>();
+
+  public MetricsSummary() {
+    this(Boolean.getBoolean(ENABLED_PROPERTY), System.getProperty(JSON_PROPERTY) != null
+        ? new File(System.getProperty(JSON_PROPERTY)) : null);
+  }
+
+  /**
+   * @param json the file to write the JSON report to or <code>null</code>
+   */
+  public MetricsSummary(boolean enabled, File json) {
+    this.enabled = enabled || json != null;
+    this.json = json;
+    for (Phase phase : Phase.values()) {
+      phases.put(phase, new Stats());
+    }
+    for (Counter counter : Counter.values()) {
+      counters.put(counter, new LongAdder());
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void onPhase(File pom, Phase phase, long nanos) {
+    if (enabled) {
+      phases.get(phase).add(nanos);
+      if (phase == Phase.READ && pom != null) {
+        reads.computeIfAbsent(pom, p -> new LongAdder()).add(nanos);
+      }
+    }
+  }
+
+  @Override
+  public void onCount(File pom, Counter counter) {
+    if (enabled) {
+      counters.get(counter).increment();
+    }
+  }
+
+  public void reset() {
+    phases.values().forEach(Stats::reset);
+    counters.values().forEach(LongAdder::reset);
+    reads.clear();
+  }
+
+  /**
+   * Logs the summary table and writes the JSON report, if enabled.
+   */
+  public void report() {
+    if (!enabled) {
+      return;
+    }
+    log.info(toTable());
+    if (json != null) {
+      try (Writer out = Files.newBufferedWriter(json.toPath(), StandardCharsets.UTF_8)) {
+        out.write(toJson());
+      } catch (IOException e) {
+        log.warn("Failed to write polyglot metrics to {}", json, e);
+      }
+    }
+  }
+
+  String toTable() {
+    StringBuilder table = new StringBuilder("Polyglot model loading:").append(System.lineSeparator());
+    table.append(String.format(Locale.ROOT, "  %-10s %8s %12s %10s %10s%n", "phase", "count", "total ms", "avg ms",
+        "max ms"));
+    for (Map.Entry<Phase, Stats> entry : phases.entrySet()) {
+      Stats stats = entry.getValue();
+      long count = stats.count.sum();
+      if (count > 0) {
+        table.append(String.format(Locale.ROOT, "  %-10s %8d %12.1f %10.2f %10.1f%n",
+            entry.getKey().name().toLowerCase(Locale.ROOT), count, millis(stats.total.sum()),
+            millis(stats.total.sum()) / count, millis(stats.max.get())));
+      }
+    }
+    table.append(String.format(Locale.ROOT, "  cache hits: %d, misses: %d", counters.get(Counter.CACHE_HIT).sum(),
+        counters.get(Counter.CACHE_MISS).sum()));
+    if (counters.get(Counter.SCRIPT_LOADER_CREATED).sum() > 0) {
+      table.append(System.lineSeparator()).append(String.format(Locale.ROOT,
+          "  script class loaders created: %d, evicted: %d, script classes: %d",
+          counters.get(Counter.SCRIPT_LOADER_CREATED).sum(), counters.get(Counter.SCRIPT_LOADER_EVICTED).sum(),
+          counters.get(Counter.SCRIPT_CLASS_DEFINED).sum()));
+    }
+    List<Map.Entry<File, LongAdder>> slowest = slowestReads();
+    if (!slowest.isEmpty()) {
+      table.append(System.lineSeparator()).append("  slowest reads:");
+      for (Map.Entry<File, LongAdder> entry : slowest) {
+        table.append(System.lineSeparator())
+            .append(String.format(Locale.ROOT, "  %10.1f ms  %s", millis(entry.getValue().sum()), entry.getKey()));
+      }
+    }
+    return table.toString();
+  }
+
+  String toJson() {
+    StringBuilder out = new StringBuilder("{\n  \"phases\": {");
+    String separator = "\n";
+    for (Map.Entry<Phase, Stats> entry : phases.entrySet()) {
+      Stats stats = entry.getValue();
+      out.append(separator).append("    \"").append(entry.getKey().name().toLowerCase(Locale.ROOT))
+          .append("\": {\"count\": ").append(stats.count.sum())
+          .append(", \"totalNanos\": ").append(stats.total.sum())
+          .append(", \"maxNanos\": ").append(stats.max.get()).append('}');
+      separator = ",\n";
+    }
+    out.append("\n  },\n  \"counters\": {");
+    separator = "\n";
+    for (Map.Entry<Counter, LongAdder> entry : counters.entrySet()) {
+      out.append(separator).append("    \"").append(entry.getKey().name().toLowerCase(Locale.ROOT)).append("\": ")
+          .append(entry.getValue().sum());
+      separator = ",\n";
+    }
+    out.append("\n  },\n  \"slowestReads\": [");
+    separator = "\n";
+    for (Map.Entry<File, LongAdder> entry : slowestReads()) {
+      out.append(separator).append("    {\"pom\": \"").append(escape(entry.getKey().getPath()))
+          .append("\", \"nanos\": ").append(entry.getValue().sum()).append('}');
+      separator = ",\n";
+    }
+    return out.append("\n  ]\n}\n").toString();
+  }
+
+  private List<Map.Entry<File, LongAdder>> slowestReads() {
+    List<Map.Entry<File, LongAdder>> entries = new ArrayList<>(reads.entrySet());
+    entries.sort((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()));
+    return entries.subList(0, Math.min(SLOWEST_POMS, entries.size()));
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static String escape(String value) {
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (char c : value.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        escaped.append('\\').append(c);
+      } else if (c < 0x20) {
+        escaped.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+      } else {
+        escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+
+  private static final class Stats {
+    final LongAdder count = new LongAdder();
+
+    final LongAdder total = new LongAdder();
+
+    final AtomicLong max = new AtomicLong();
+
+    void add(long nanos) {
+      count.increment();
+      total.add(nanos);
+      max.accumulateAndGet(nanos, Math::max);
+    }
+
+    void reset() {
+      count.reset();
+      total.reset();
+      max.set(0);
+    }
+  }
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.metrics;
+
+/**
+ * Timed phases of loading a polyglot model.
+ *
+ * @since 0.7.3
+ */
+public enum Phase {
+  /** Locating the POM of a directory. */
+  LOCATE,
+  /** Reading the polyglot POM, including compile and evaluation of scripts. */
+  READ,
+  /** Compiling a POM script. */
+  COMPILE,
+  /** Evaluating a compiled POM script. */
+  EVALUATE,
+  /** Adding the polyglot properties to the model. */
+  ENHANCE,
+  /** Rendering the model as POM XML. */
+  SERIALIZE,
+  /** Writing the generated POM XML to disk. */
+  WRITE
+}
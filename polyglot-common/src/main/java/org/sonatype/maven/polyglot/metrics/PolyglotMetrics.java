@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.metrics;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Dispatches timings and counts to all {@link MetricsListener} components.
+ *
+ * Code outside the container, like script hosts, records through the static {@link #record(Phase, long)} and
+ * {@link #count(Counter)}, which attribute the event to the POM the current thread is loading and dispatch it to the
+ * metrics that marked the thread (see {@link #enter(File)}). Each container, such as each build of a daemon or an
+ * embedded test, thereby only sees the events of the POMs it loads itself.
+ *
+ * @since 0.7.3
+ */
+@Singleton
+@Named
+public class PolyglotMetrics {
+
+  private static final ThreadLocal<Loading> CURRENT = new ThreadLocal<>();
+
+  private final List<MetricsListener> listeners;
+
+  @Inject
+  public PolyglotMetrics(List<MetricsListener> listeners) {
+    this.listeners = listeners;
+  }
+
+  /**
+   * Marks the current thread as loading the given POM for these metrics.
+   *
+   * @return the POM loaded before, to be passed to {@link #exit(File)}
+   */
+  public File enter(File pom) {
+    Loading previous = CURRENT.get();
+    CURRENT.set(new Loading(this, pom));
+    return previous != null ? previous.pom : null;
+  }
+
+  public void exit(File previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(new Loading(this, previous));
+    }
+  }
+
+  /**
+   * Records a phase of the given POM that started at the given {@link System#nanoTime()}.
+   */
+  public void phase(File pom, Phase phase, long startNanos) {
+    long nanos = System.nanoTime() - startNanos;
+    for (MetricsListener listener : listeners) {
+      listener.onPhase(pom, phase, nanos);
+    }
+  }
+
+  public void counter(File pom, Counter counter) {
+    for (MetricsListener listener : listeners) {
+      listener.onCount(pom, counter);
+    }
+  }
+
+  /**
+   * Records a phase of the POM loaded by the current thread that started at the given {@link System#nanoTime()}.
+   */
+  public static void record(Phase phase, long startNanos) {
+    Loading loading = CURRENT.get();
+    if (loading != null) {
+      loading.metrics.phase(loading.pom, phase, startNanos);
+    }
+  }
+
+  public static void count(Counter counter) {
+    Loading loading = CURRENT.get();
+    if (loading != null) {
+      loading.metrics.counter(loading.pom, counter);
+    }
+  }
+
+  /**
+   * A POM being loaded by a thread, with the metrics to record its events in.
+   */
+  private static final class Loading {
+    final PolyglotMetrics metrics;
+
+    final File pom;
+
+    Loading(PolyglotMetrics metrics, File pom) {
+      this.metrics = metrics;
+      this.pom = pom;
+    }
+  }
+}
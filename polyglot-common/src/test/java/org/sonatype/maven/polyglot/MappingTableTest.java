@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.model.building.ModelProcessor;
+import org.junit.Test;
+import org.sonatype.maven.polyglot.mapping.Mapping;
+import org.sonatype.maven.polyglot.mapping.MappingSupport;
+import org.sonatype.maven.polyglot.mapping.XmlMapping;
+
+public class MappingTableTest {
+
+  private static class TestMapping extends MappingSupport {
+    TestMapping(String flavour, float priority, String... extensions) {
+      super(flavour);
+      setPomNames("pom." + flavour);
+      setAcceptLocationExtensions(extensions);
+      setAcceptOptionKeys(flavour + ":4.0.0");
+      setPriority(priority);
+    }
+  }
+
+  private final Mapping xml = new XmlMapping();
+
+  private final Mapping yaml = new TestMapping("yaml", 1, ".yaml", ".yml");
+
+  private final Mapping ruby = new TestMapping("ruby", 1, ".rb", "Mavenfile");
+
+  private final Mapping xml41 = new TestMapping("xml41", -1, ".xml41", ".xml");
+
+  private final MappingTable table = new MappingTable(Arrays.asList(xml41, xml, yaml, ruby));
+
+  @Test
+  public void testResolveByExtension() {
+    assertSame(yaml, table.resolve(source("/a/pom.yml")));
+    assertSame(ruby, table.resolve(source("/a/Mavenfile")));
+    assertSame(xml41, table.resolve(source("/a/pom.xml41")));
+    assertSame(xml, table.resolve(source("/a/pom.xml")));
+    assertNull(table.resolve(source("/a/pom.unknown")));
+    assertNull(table.resolve(source("ml")));
+  }
+
+  @Test
+  public void testResolveByOptionKey() {
+    assertSame(ruby, table.resolve(Collections.singletonMap("ruby:4.0.0", "ruby:4.0.0")));
+    assertSame(xml, table.resolve(Collections.singletonMap("xml:4.0.0", "xml:4.0.0")));
+    assertNull(table.resolve(Collections.singletonMap("other", "other")));
+    assertNull(table.resolve(null));
+  }
+
+  @Test
+  public void testCustomAcceptKeepsPriorityOrder() {
+    Mapping custom = new TestMapping("custom", 2) {
+      @Override
+      public boolean accept(Map<String, ?> options) {
+        return "/a/pom.yml".equals(getLocation(options));
+      }
+    };
+    MappingTable withCustom = new MappingTable(Arrays.asList(yaml, custom));
+    assertSame(custom, withCustom.resolve(source("/a/pom.yml")));
+    assertSame(yaml, withCustom.resolve(source("/b/pom.yml")));
+  }
+
+  @Test
+  public void testMatchesLinearScan() {
+    List<Mapping> sorted = table.getSortedMappings();
+    for (String location : Arrays.asList("pom.xml", "x.pom", "pom.yaml", "pom.rb", "Mavenfile", "pom.xml41", "pom")) {
+      Map<String, ?> options = source(location);
+      Mapping expected = null;
+      for (Mapping mapping : sorted) {
+        if (mapping.accept(options)) {
+          expected = mapping;
+          break;
+        }
+      }
+      assertSame(location, expected, table.resolve(options));
+    }
+  }
+
+  @Test
+  public void testStale() {
+    List<Mapping> mappings = new ArrayList<>(Arrays.asList(xml, yaml));
+    MappingTable snapshot = new MappingTable(mappings);
+    assertFalse(snapshot.isStale(mappings));
+    mappings.add(ruby);
+    assertTrue(snapshot.isStale(mappings));
+    assertEquals(2, snapshot.getSortedMappings().size());
+  }
+
+  @Test
+  public void testStaleAfterReplacingMapping() {
+    List<Mapping> mappings = new ArrayList<>(Arrays.asList(xml, yaml));
+    MappingTable snapshot = new MappingTable(mappings);
+    mappings.set(1, ruby);
+    assertTrue(snapshot.isStale(mappings));
+    assertFalse(new MappingTable(mappings).isStale(Arrays.asList(xml, ruby)));
+  }
+
+  private static Map<String, ?> source(String location) {
+    return Collections.singletonMap(ModelProcessor.SOURCE, location);
+  }
+}
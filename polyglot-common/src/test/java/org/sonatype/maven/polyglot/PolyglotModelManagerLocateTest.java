@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonatype.maven.polyglot.mapping.MappingSupport;
+import org.sonatype.maven.polyglot.mapping.XmlMapping;
+
+public class PolyglotModelManagerLocateTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  private PolyglotModelManager manager;
+
+  @Before
+  public void setUp() {
+    MappingSupport yaml = new MappingSupport("yaml") {
+      {
+        setPomNames("pom.yaml", "pom.yml");
+        setPriority(1);
+      }
+    };
+    manager = new PolyglotModelManager();
+    manager.mappings = new ArrayList<>(Arrays.asList(new XmlMapping(), yaml));
+  }
+
+  @Test
+  public void testFindPomByPriority() throws Exception {
+    File dir = tmp.getRoot();
+    tmp.newFile("pom.xml");
+    tmp.newFile("pom.yml");
+
+    assertEquals(new File(dir, "pom.yml"), manager.findPom(dir));
+    assertEquals("yaml", manager.determineFlavourFromPom(dir));
+  }
+
+  @Test
+  public void testLocatedPomsAreCachedUntilCleared() throws Exception {
+    File dir = tmp.getRoot();
+    assertNull(manager.findPom(dir));
+
+    tmp.newFile("pom.xml");
+    assertNull(manager.findPom(dir));
+
+    manager.clearLocatedPoms();
+    assertEquals(new File(dir, "pom.xml"), manager.findPom(dir));
+    assertEquals("default", manager.determineFlavourFromPom(dir));
+  }
+
+  @Test
+  public void testFindPomInRelativeDirectory() throws Exception {
+    tmp.newFile("pom.yaml");
+    File dir = new File("").getAbsoluteFile().toPath().relativize(tmp.getRoot().toPath()).toFile();
+
+    assertEquals(new File(dir, "pom.yaml"), manager.findPom(dir));
+    assertEquals(new File(tmp.getRoot(), "pom.yaml"), manager.findPom(tmp.getRoot()));
+  }
+
+  @Test
+  public void testFindPomMatchesCaseLikeTheFilesystem() throws Exception {
+    File dir = tmp.getRoot();
+    tmp.newFile("POM.YML");
+    File expected = new File(dir, "pom.yml").exists() ? new File(dir, "pom.yml") : null;
+
+    assertEquals(expected, manager.findPom(dir));
+  }
+
+  @Test
+  public void testMissingDirectory() {
+    assertNull(manager.findPom(new File(tmp.getRoot(), "missing")));
+  }
+}
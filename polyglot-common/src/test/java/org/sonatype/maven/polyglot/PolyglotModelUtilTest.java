@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.LegacySupport;
+import org.apache.maven.plugin.internal.DefaultLegacySupport;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.After;
+import org.junit.Test;
+
+public class PolyglotModelUtilTest {
+
+  private static final String PROPERTY = "polyglot.test.flag";
+
+  private final LegacySupport legacySupport = new DefaultLegacySupport();
+
+  @After
+  public void clearProperty() {
+    System.clearProperty(PROPERTY);
+  }
+
+  @Test
+  public void testFlagIsReadPerSession() {
+    legacySupport.setSession(session("true"));
+    assertTrue(PolyglotModelUtil.isEnabled(legacySupport, PROPERTY));
+
+    legacySupport.setSession(session(null));
+    assertFalse(PolyglotModelUtil.isEnabled(legacySupport, PROPERTY));
+  }
+
+  @Test
+  public void testUserPropertiesOverrideSystemProperties() {
+    System.setProperty(PROPERTY, "true");
+    assertTrue(PolyglotModelUtil.isEnabled(null, PROPERTY));
+
+    legacySupport.setSession(session("false"));
+    assertFalse(PolyglotModelUtil.isEnabled(legacySupport, PROPERTY));
+  }
+
+  @SuppressWarnings("deprecation")
+  private static MavenSession session(String value) {
+    MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+    if (value != null) {
+      request.getUserProperties().setProperty(PROPERTY, value);
+    }
+    return new MavenSession(null, new DefaultRepositorySystemSession(), request, new DefaultMavenExecutionResult());
+  }
+}
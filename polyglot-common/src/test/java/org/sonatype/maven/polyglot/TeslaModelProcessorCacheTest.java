@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.io.ModelReader;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonatype.maven.polyglot.cache.ModelCache;
+import org.sonatype.maven.polyglot.execute.ExecuteContext;
+import org.sonatype.maven.polyglot.execute.ExecuteManager;
+import org.sonatype.maven.polyglot.execute.ExecuteManagerImpl;
+import org.sonatype.maven.polyglot.execute.ExecuteTask;
+import org.sonatype.maven.polyglot.execute.ExecuteTaskSupport;
+import org.sonatype.maven.polyglot.mapping.MappingSupport;
+import org.sonatype.maven.polyglot.metrics.PolyglotMetrics;
+
+public class TeslaModelProcessorCacheTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  private final AtomicInteger reads = new AtomicInteger();
+
+  @Test
+  public void testModelsWithExecuteTasksAreReadEveryBuild() throws Exception {
+    File cacheDir = tmp.newFolder("cache");
+    File pom = tmp.newFile("pom.task");
+    Files.write(pom.toPath(), "with-task".getBytes(StandardCharsets.UTF_8));
+
+    for (int build = 1; build <= 2; build++) {
+      ExecuteManager executeManager = new ExecuteManagerImpl();
+      TeslaModelProcessor processor = processor(new ModelCache(cacheDir), executeManager);
+
+      Model model = processor.preParse(pom);
+
+      assertEquals(build, reads.get());
+      assertEquals(0, cacheDir.list().length);
+      // what ExecuteMojo does: find the task of the execution by its id
+      String taskId = taskId(model);
+      ExecuteTask task = executeManager.getTasks(model).stream()
+          .filter(t -> t.getId().equals(taskId)).findFirst().orElse(null);
+      assertNotNull("Unable to find task for id: " + taskId, task);
+    }
+  }
+
+  @Test
+  public void testModelsWithoutExecuteTasksAreCached() throws Exception {
+    File cacheDir = tmp.newFolder("cache");
+    File pom = tmp.newFile("pom.task");
+    Files.write(pom.toPath(), "plain".getBytes(StandardCharsets.UTF_8));
+
+    processor(new ModelCache(cacheDir), new ExecuteManagerImpl()).preParse(pom);
+    processor(new ModelCache(cacheDir), new ExecuteManagerImpl()).preParse(pom);
+
+    assertEquals(1, reads.get());
+    assertEquals(1, cacheDir.list().length);
+  }
+
+  private TeslaModelProcessor processor(ModelCache cache, ExecuteManager executeManager) throws Exception {
+    PolyglotModelManager manager = new PolyglotModelManager();
+    manager.mappings = new ArrayList<>(Collections.singletonList(new TaskMapping(executeManager)));
+    inject(executeManager, "manager", manager);
+    TeslaModelProcessor processor = new TeslaModelProcessor();
+    inject(processor, "manager", manager);
+    inject(processor, "modelCache", cache);
+    inject(processor, "executeManager", executeManager);
+    inject(processor, "metrics", new PolyglotMetrics(Collections.emptyList()));
+    return processor;
+  }
+
+  private static String taskId(Model model) {
+    Plugin plugin = model.getBuild().getPlugins().get(0);
+    PluginExecution execution = plugin.getExecutions().get(0);
+    return ((Xpp3Dom) execution.getConfiguration()).getChild("taskId").getValue();
+  }
+
+  private static void inject(Object target, String name, Object value) throws Exception {
+    Class<?> type = target.getClass();
+    while (true) {
+      try {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return;
+      } catch (NoSuchFieldException e) {
+        type = type.getSuperclass();
+      }
+    }
+  }
+
+  /**
+   * Reads POMs like the script flavours do: {@code with-task} registers an inline task and installs its execution.
+   */
+  private class TaskMapping extends MappingSupport {
+
+    private final ExecuteManager executeManager;
+
+    TaskMapping(ExecuteManager executeManager) {
+      super("task");
+      this.executeManager = executeManager;
+      setAcceptLocationExtensions(".task");
+    }
+
+    @Override
+    public ModelReader getReader() {
+      return new ModelReader() {
+        @Override
+        public Model read(File input, Map<String, ?> options) throws IOException {
+          reads.incrementAndGet();
+          Model model = new Model();
+          model.setModelVersion("4.0.0");
+          model.setGroupId("org.example");
+          model.setArtifactId("cached");
+          model.setVersion("1.0");
+          if (new String(Files.readAllBytes(input.toPath()), StandardCharsets.UTF_8).equals("with-task")) {
+            ExecuteTaskSupport task = new ExecuteTaskSupport() {
+              @Override
+              public void execute(ExecuteContext context) {
+              }
+            };
+            task.setId("hello");
+            task.setPhase("validate");
+            List<ExecuteTask> tasks = Collections.singletonList(task);
+            executeManager.register(model, tasks);
+            executeManager.install(model, options);
+          }
+          return model;
+        }
+
+        @Override
+        public Model read(Reader input, Map<String, ?> options) {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Model read(InputStream input, Map<String, ?> options) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
+}
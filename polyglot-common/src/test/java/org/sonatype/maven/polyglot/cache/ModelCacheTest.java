@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ModelCacheTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  private ModelCache cache;
+
+  private File pom;
+
+  private File include;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new ModelCache(tmp.newFolder("cache"));
+    pom = tmp.newFile("pom.kts");
+    include = tmp.newFile("include.kts");
+    write(pom, "project { }");
+    write(include, "// shared");
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    assertNull(cache.get(pom, "kotlin"));
+    cache.put(pom, "kotlin", toXml(model("a")), Collections.singleton(include));
+
+    Model cached = cache.get(pom, "kotlin");
+    assertNotNull(cached);
+    assertEquals("a", cached.getArtifactId());
+    assertNull(cache.get(pom, "scala"));
+  }
+
+  @Test
+  public void testSourceChangeInvalidates() throws Exception {
+    cache.put(pom, "kotlin", toXml(model("a")), null);
+    write(pom, "project { artifactId = \"b\" }");
+    assertNull(cache.get(pom, "kotlin"));
+  }
+
+  @Test
+  public void testIncludeChangeInvalidates() throws Exception {
+    cache.put(pom, "kotlin", toXml(model("a")), Collections.singleton(include));
+    write(include, "// changed");
+    assertNull(cache.get(pom, "kotlin"));
+  }
+
+  @Test
+  public void testIncludeTracking() {
+    cache.beginTracking();
+    ModelCache.recordInclude(include);
+    Collection<File> includes = cache.endTracking();
+    assertEquals(Collections.singletonList(include.getAbsoluteFile()), new ArrayList<>(includes));
+
+    ModelCache.recordInclude(include);
+    assertNull(cache.endTracking());
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    ModelCache disabled = new ModelCache(null);
+    assertFalse(disabled.isEnabled());
+    disabled.put(pom, "kotlin", toXml(model("a")), null);
+    assertNull(disabled.get(pom, "kotlin"));
+  }
+
+  private static Model model(String artifactId) {
+    Model model = new Model();
+    model.setModelVersion("4.0.0");
+    model.setGroupId("test");
+    model.setArtifactId(artifactId);
+    model.setVersion("1");
+    return model;
+  }
+
+  private static byte[] toXml(Model model) throws Exception {
+    StringWriter xml = new StringWriter();
+    new MavenXpp3Writer().write(xml, model);
+    return xml.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void write(File file, String content) throws Exception {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.execute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.junit.Test;
+
+public class ExecuteManagerImplTest {
+
+  private final ExecuteManagerImpl manager = new ExecuteManagerImpl();
+
+  @Test
+  public void testFallbackToLessSpecificRegistration() {
+    List<ExecuteTask> inherited = tasks("inherited");
+    List<ExecuteTask> unversioned = tasks("unversioned");
+    manager.register(model(null, "a", "1.0"), inherited);
+    manager.register(model("g", "b", null), unversioned);
+
+    assertEquals(inherited, manager.getTasks(model("g", "a", "1.0")));
+    assertEquals(unversioned, manager.getTasks(model("g", "b", "1.0")));
+    assertTrue(manager.getTasks(model("g", "a", "2.0")).isEmpty());
+    assertTrue(manager.getTasks(model("g", "c", "1.0")).isEmpty());
+
+    List<ExecuteTask> exact = tasks("exact");
+    manager.register(model("g", "a", "1.0"), exact);
+    assertEquals(exact, manager.getTasks(model("g", "a", "1.0")));
+
+    List<ExecuteTask> replaced = tasks("replaced");
+    manager.register(model("g", "a", "1.0"), replaced);
+    assertEquals(replaced, manager.getTasks(model("g", "a", "1.0")));
+  }
+
+  @Test
+  public void testConcurrentRegistration() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 200; i++) {
+      String version = String.valueOf(i);
+      executor.execute(() -> manager.register(model("g", "a", version), tasks(version)));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+    for (int i = 0; i < 200; i++) {
+      String version = String.valueOf(i);
+      assertEquals(version, manager.getTasks(model("g", "a", version)).get(0).getId());
+    }
+  }
+
+  private static Model model(String groupId, String artifactId, String version) {
+    Model model = new Model();
+    model.setGroupId(groupId);
+    model.setArtifactId(artifactId);
+    model.setVersion(version);
+    return model;
+  }
+
+  private static List<ExecuteTask> tasks(String id) {
+    ExecuteTaskSupport task = new ExecuteTaskSupport() {
+      @Override
+      public void execute(ExecuteContext context) {
+      }
+    };
+    task.setId(id);
+    return Collections.singletonList(task);
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileSupportTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testWriteIfChanged() throws Exception {
+    File file = new File(tmp.getRoot(), "pom.xml");
+    byte[] content = "<project/>".getBytes(StandardCharsets.UTF_8);
+
+    assertTrue(FileSupport.writeIfChanged(file, content));
+    assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+
+    long lastModified = 1_000_000_000L;
+    assertTrue(file.setLastModified(lastModified));
+    assertFalse(FileSupport.writeIfChanged(file, content));
+    assertEquals(lastModified, file.lastModified());
+
+    byte[] changed = "<project></project>".getBytes(StandardCharsets.UTF_8);
+    assertTrue(FileSupport.writeIfChanged(file, changed));
+    assertArrayEquals(changed, Files.readAllBytes(file.toPath()));
+    assertEquals(1, tmp.getRoot().list().length);
+  }
+
+  @Test
+  public void testWriteIfChangedKeepsPermissions() throws Exception {
+    File file = tmp.newFile("pom.xml");
+    assumeTrue(Files.getFileAttributeView(file.toPath(), PosixFileAttributeView.class) != null);
+    Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+    Files.setPosixFilePermissions(file.toPath(), permissions);
+
+    assertTrue(FileSupport.writeIfChanged(file, "<project/>".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(permissions, Files.getPosixFilePermissions(file.toPath()));
+
+    File created = new File(tmp.getRoot(), "created.xml");
+    assertTrue(FileSupport.writeIfChanged(created, "<project/>".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(Files.getPosixFilePermissions(tmp.newFile("reference.xml").toPath()),
+        Files.getPosixFilePermissions(created.toPath()));
+  }
+
+  @Test
+  public void testPruneDeletesLeastRecentlyModifiedEntries() throws Exception {
+    File dir = tmp.getRoot();
+    for (int i = 0; i < 4; i++) {
+      File entry = tmp.newFile("entry" + i + ".jar");
+      assertTrue(entry.setLastModified(1_000_000_000L + i * 1000L));
+    }
+    File nested = tmp.newFolder("entry4.jar");
+    assertTrue(new File(nested, "content").createNewFile());
+    assertTrue(nested.setLastModified(1_000_000_000L - 1000L));
+    tmp.newFile("ignored.tmp").setLastModified(0);
+
+    FileSupport.prune(dir, f -> f.getName().endsWith(".jar"), 2);
+
+    Set<String> left = new HashSet<>(Arrays.asList(dir.list()));
+    assertEquals(new HashSet<>(Arrays.asList("entry2.jar", "entry3.jar", "ignored.tmp")), left);
+  }
+
+  @Test
+  public void testContentEquals() throws Exception {
+    File file = tmp.newFile("pom.xml");
+    assertTrue(FileSupport.contentEquals(file, new byte[0]));
+    assertFalse(FileSupport.contentEquals(file, new byte[] {1}));
+    Files.write(file.toPath(), new byte[] {1, 2});
+    assertFalse(FileSupport.contentEquals(file, new byte[] {1, 3}));
+    assertTrue(FileSupport.contentEquals(file, new byte[] {1, 2}));
+    assertFalse(FileSupport.contentEquals(new File(tmp.getRoot(), "missing"), new byte[0]));
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MetricsSummaryTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testSummary() throws Exception {
+    File json = new File(tmp.getRoot(), "metrics.json");
+    MetricsSummary summary = new MetricsSummary(false, json);
+    PolyglotMetrics metrics = new PolyglotMetrics(Collections.singletonList(summary));
+    File pom = new File("/a/pom.kts");
+
+    File previous = metrics.enter(pom);
+    PolyglotMetrics.record(Phase.COMPILE, System.nanoTime() - 2_000_000);
+    metrics.exit(previous);
+    summary.onPhase(pom, Phase.READ, 3_000_000);
+    summary.onPhase(new File("/b/pom.\"yml\""), Phase.READ, 1_000_000);
+    metrics.counter(pom, Counter.CACHE_MISS);
+    metrics.counter(pom, Counter.SCRIPT_LOADER_CREATED);
+    metrics.counter(pom, Counter.SCRIPT_CLASS_DEFINED);
+    metrics.counter(pom, Counter.SCRIPT_CLASS_DEFINED);
+
+    String table = summary.toTable();
+    assertTrue(table, table.contains("compile"));
+    assertTrue(table, table.contains("read              2"));
+    assertTrue(table, table.contains("cache hits: 0, misses: 1"));
+    assertTrue(table, table.contains("script class loaders created: 1, evicted: 0, script classes: 2"));
+    assertTrue(table, table.indexOf("pom.kts") < table.indexOf("pom.\"yml\""));
+    assertFalse(table, table.contains("evaluate"));
+
+    summary.report();
+    String content = new String(Files.readAllBytes(json.toPath()), StandardCharsets.UTF_8);
+    assertTrue(content, content.contains("\"read\": {\"count\": 2, \"totalNanos\": 4000000, \"maxNanos\": 3000000}"));
+    assertTrue(content, content.contains("\"cache_miss\": 1"));
+    assertTrue(content, content.contains("pom.\\\"yml\\\""));
+
+    summary.reset();
+    assertTrue(summary.toJson().contains("\"read\": {\"count\": 0"));
+  }
+
+  @Test
+  public void testDisabled() {
+    MetricsSummary summary = new MetricsSummary(false, null);
+    assertFalse(summary.isEnabled());
+    summary.onPhase(null, Phase.READ, 1);
+    assertEquals(-1, summary.toTable().indexOf("read"));
+  }
+}
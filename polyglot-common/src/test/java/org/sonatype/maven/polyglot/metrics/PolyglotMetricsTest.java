@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PolyglotMetricsTest {
+
+  @Test
+  public void testEventsGoToTheMetricsLoadingThePom() throws Exception {
+    Recorder first = new Recorder();
+    Recorder second = new Recorder();
+    PolyglotMetrics firstMetrics = new PolyglotMetrics(Collections.singletonList(first));
+    PolyglotMetrics secondMetrics = new PolyglotMetrics(Collections.singletonList(second));
+    File pom = new File("/a/pom.kts");
+    File otherPom = new File("/b/pom.kts");
+
+    // the metrics constructed last must not receive the events of the POM loaded for the other ones
+    File previous = firstMetrics.enter(pom);
+    PolyglotMetrics.count(Counter.SCRIPT_LOADER_CREATED);
+    Thread other = new Thread(() -> {
+      File otherPrevious = secondMetrics.enter(otherPom);
+      PolyglotMetrics.count(Counter.SCRIPT_CLASS_DEFINED);
+      secondMetrics.exit(otherPrevious);
+    });
+    other.start();
+    other.join();
+    firstMetrics.exit(previous);
+    assertNull(previous);
+
+    PolyglotMetrics.count(Counter.SCRIPT_LOADER_EVICTED);
+
+    assertEquals(Collections.singletonList(pom + " " + Counter.SCRIPT_LOADER_CREATED), first.events);
+    assertEquals(Collections.singletonList(otherPom + " " + Counter.SCRIPT_CLASS_DEFINED), second.events);
+  }
+
+  @Test
+  public void testNestedPomsRestoreTheOuterOne() {
+    Recorder recorder = new Recorder();
+    PolyglotMetrics metrics = new PolyglotMetrics(Collections.singletonList(recorder));
+    File parent = new File("/parent/pom.kts");
+    File child = new File("/child/pom.kts");
+
+    File outer = metrics.enter(parent);
+    File inner = metrics.enter(child);
+    PolyglotMetrics.count(Counter.CACHE_MISS);
+    metrics.exit(inner);
+    PolyglotMetrics.count(Counter.CACHE_HIT);
+    metrics.exit(outer);
+
+    assertEquals(parent, inner);
+    assertEquals(2, recorder.events.size());
+    assertEquals(child + " " + Counter.CACHE_MISS, recorder.events.get(0));
+    assertEquals(parent + " " + Counter.CACHE_HIT, recorder.events.get(1));
+  }
+
+  private static class Recorder implements MetricsListener {
+
+    final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void onPhase(File pom, Phase phase, long nanos) {
+      events.add(pom + " " + phase);
+    }
+
+    @Override
+    public void onCount(File pom, Counter counter) {
+      events.add(pom + " " + counter);
+    }
+  }
+}
@@ -28,5 +28,6 @@ public class GroovyMapping extends MappingSupport {
     setAcceptLocationExtensions(".groovy", ".gy");
     setAcceptOptionKeys("groovy:4.0.0");
     setPriority(1);
+    setThreadSafe(true);
   }
 }
\ No newline at end of file
@@ -30,6 +30,8 @@ import org.sonatype.maven.polyglot.PolyglotModelUtil;
 import org.sonatype.maven.polyglot.execute.ExecuteManager;
 import org.sonatype.maven.polyglot.groovy.builder.ModelBuilder;
 import org.sonatype.maven.polyglot.io.ModelReaderSupport;
+import org.sonatype.maven.polyglot.metrics.Phase;
+import org.sonatype.maven.polyglot.metrics.PolyglotMetrics;
 
 /**
  * Reads a <tt>pom.groovy</tt> and transforms into a Maven {@link Model}.
@@ -43,9 +45,6 @@ import org.sonatype.maven.polyglot.io.ModelReaderSupport;
 public class GroovyModelReader extends ModelReaderSupport {
   protected Logger log = LoggerFactory.getLogger(GroovyModelReader.class);
 
-  @Inject
-  private ModelBuilder builder;
-
   @Inject
   private ExecuteManager executeManager;
 
@@ -92,7 +91,9 @@ public class GroovyModelReader extends ModelReaderSupport {
     GroovyShell shell = new GroovyShell();
     String text = IOUtil.toString(input);
     String location = PolyglotModelUtil.getLocation(options);
+    long start = System.nanoTime();
     Script script = shell.parse(new GroovyCodeSource(text, location, location));
+    PolyglotMetrics.record(Phase.COMPILE, start);
 
     /*
      * FIXME: Bring this back as pure java
@@ -116,7 +117,13 @@ public class GroovyModelReader extends ModelReaderSupport {
      * binding.setProperty('$include', include)
      */
 
-    assert builder != null;
-    return (Model) builder.build(script);
+    // the builder keeps the state of the model being built, so each read uses its own to allow concurrent reads
+    ModelBuilder builder = new ModelBuilder(executeManager);
+    start = System.nanoTime();
+    try {
+      return (Model) builder.build(script);
+    } finally {
+      PolyglotMetrics.record(Phase.EVALUATE, start);
+    }
   }
 }
@@ -7,13 +7,9 @@
  */
 package org.sonatype.maven.polyglot.groovy.builder;
 
-import javax.inject.Inject;
-import javax.inject.Named;
-
 import groovy.lang.Closure;
 import groovy.lang.GroovyObject;
 import groovy.lang.GroovyObjectSupport;
-import groovy.lang.Singleton;
 import groovy.util.Factory;
 import groovy.util.FactoryBuilderSupport;
 
@@ -73,14 +69,12 @@ import org.sonatype.maven.polyglot.groovy.builder.factory.ReportsFactory;
 import org.sonatype.maven.polyglot.groovy.builder.factory.StringFactory;
 
 /**
- * Builds Maven {@link Model} instances.
+ * Builds Maven {@link Model} instances. A builder keeps the state of the model it builds, so one is created per read.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  *
  * @since 0.7
  */
-@Singleton
-@Named
 public class ModelBuilder extends FactoryBuilderSupport {
   protected Logger log = LoggerFactory.getLogger(ModelBuilder.class);
 
@@ -90,10 +84,13 @@ public class ModelBuilder extends FactoryBuilderSupport {
 
   private final List<ExecuteTask> tasks = new ArrayList<ExecuteTask>();
 
-  @Inject
-  private ExecuteManager executeManager;
+  private final ExecuteManager executeManager;
 
-  public ModelBuilder() {
+  /**
+   * Creates a builder for a single model, which registers its execute tasks with the given manager.
+   */
+  public ModelBuilder(final ExecuteManager executeManager) {
+    this.executeManager = executeManager;
     registerFactories();
   }
 
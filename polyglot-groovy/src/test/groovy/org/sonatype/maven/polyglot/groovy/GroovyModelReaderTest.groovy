@@ -12,6 +12,10 @@ import org.junit.Before
 import org.junit.Test
 
 import org.apache.maven.model.io.ModelReader
+import org.sonatype.maven.polyglot.execute.ExecuteManager
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
 
 /**
  * Tests for {@link GroovyModelReader}.
@@ -61,4 +65,31 @@ public class GroovyModelReaderTest
 
         dump(model)
     }
+
+    @Test
+    void testConcurrentExecute() {
+        def executeManager = lookup(ExecuteManager.class)
+        def pool = Executors.newFixedThreadPool(8)
+        try {
+            def futures = (0..<64).collect { i ->
+                pool.submit({
+                    def text = """project {
+                        artifactId 'module$i'
+                        build {
+                            \$execute(id: 'task$i', phase: 'compile') { ec -> }
+                        }
+                    }"""
+                    def options = [(ModelProcessor.SOURCE): "pom${i}.groovy".toString()]
+                    reader.read(new StringReader(text), options)
+                } as Callable)
+            }
+            futures.eachWithIndex { future, i ->
+                def model = future.get()
+                assertEquals("module$i".toString(), model.artifactId)
+                assertEquals(["task$i".toString()], executeManager.getTasks(model)*.id)
+            }
+        } finally {
+            pool.shutdown()
+        }
+    }
 }
@@ -10,6 +10,7 @@ package org.sonatype.maven.polyglot.groovy.builder
 import org.junit.Before
 import org.junit.Test
 import static org.junit.Assert.*
+import org.sonatype.maven.polyglot.execute.ExecuteManager
 import org.sonatype.maven.polyglot.groovy.GroovyModelTestSupport
 
 /**
@@ -24,7 +25,7 @@ public class ModelBuilderTest
 
     @Before
     void setUp() {
-        builder = lookup(ModelBuilder.class)
+        builder = new ModelBuilder(lookup(ExecuteManager.class))
     }
 
     @Test
@@ -13,5 +13,6 @@ class KotlinMapping : MappingSupport("kotlin") {
         setAcceptLocationExtensions(".kts")
         setAcceptOptionKeys("kotlin:4.0.0", "kts:4.0.0")
         priority = 1f
+        isThreadSafe = true
     }
 }
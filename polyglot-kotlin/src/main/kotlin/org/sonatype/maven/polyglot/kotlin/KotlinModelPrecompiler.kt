@@ -0,0 +1,14 @@
+package org.sonatype.maven.polyglot.kotlin
+
+import org.sonatype.maven.polyglot.io.ModelPrecompiler
+import org.sonatype.maven.polyglot.kotlin.engine.ScriptHost
+import java.io.File
+import javax.inject.Named
+import javax.inject.Singleton
+
+@Singleton
+@Named( "kotlin" )
+class KotlinModelPrecompiler : ModelPrecompiler {
+
+    override fun precompile(pom: File): List<File> = ScriptHost.precompile(pom)
+}
@@ -5,6 +5,7 @@ import org.apache.maven.model.building.ModelProcessor
 import org.apache.maven.model.io.ModelReader
 import org.sonatype.maven.polyglot.execute.ExecuteManager
 import org.sonatype.maven.polyglot.kotlin.dsl.Project
+import org.sonatype.maven.polyglot.kotlin.engine.LocatedScriptSource
 import org.sonatype.maven.polyglot.kotlin.engine.ScriptHost
 import java.io.File
 import java.io.InputStream
@@ -12,7 +13,13 @@ import java.io.Reader
 import javax.inject.Inject
 import javax.inject.Named
 import javax.inject.Singleton
+import kotlin.script.experimental.api.SourceCode
+import kotlin.script.experimental.host.toScriptSource
 
+/**
+ * Reads `pom.kts` files. Safe for concurrent reads, as Maven does when building with `-T`: every read evaluates into its
+ * own [Project], and the shared [ScriptHost] and [ExecuteManager] are thread-safe.
+ */
 @Singleton
 @Named( "kotlin" )
 class KotlinModelReader : ModelReader {
@@ -21,33 +28,27 @@ class KotlinModelReader : ModelReader {
     private lateinit var executeManager: ExecuteManager
 
     override fun read(input: File, options: Map<String, *>): Model {
-        val source = options[ModelProcessor.SOURCE].toString()
-        val sourceFile = File(source)
-        val basedir = sourceFile.parentFile.canonicalFile
-        val model = Project(input)
-        ScriptHost.eval(input, basedir, model)
-        val tasks = ArrayList(model.tasks)
-        executeManager.register(model, tasks)
-        executeManager.install(model, options)
-        model.tasks.clear() // Must be cleared or Maven goes into an infinitely repeatable introspection
-        return model
+        return read(input.toScriptSource(), input, options)
     }
 
     override fun read(input: Reader, options: MutableMap<String, *>): Model {
-        val temp = File.createTempFile("pom", ".kts")
-        temp.deleteOnExit()
-        temp.writer().use { input.copyTo(it) }
-        val model = read(temp, options)
-        temp.delete()
-        return model
+        val location = File(options[ModelProcessor.SOURCE].toString())
+        return read(LocatedScriptSource(input.readText(), location), location, options)
     }
 
     override fun read(input: InputStream, options: MutableMap<String, *>): Model {
-        val temp = File.createTempFile("pom", ".kts")
-        temp.deleteOnExit()
-        temp.outputStream().use { input.copyTo(it) }
-        val model = read(temp, options)
-        temp.delete()
+        return read(input.reader(), options)
+    }
+
+    private fun read(source: SourceCode, script: File, options: Map<String, *>): Model {
+        val sourceFile = File(options[ModelProcessor.SOURCE].toString())
+        val basedir = sourceFile.absoluteFile.parentFile.canonicalFile
+        val model = Project(script)
+        ScriptHost.eval(source, script, basedir, model)
+        val tasks = ArrayList(model.tasks)
+        executeManager.register(model, tasks)
+        executeManager.install(model, options)
+        model.tasks.clear() // Must be cleared or Maven goes into an infinitely repeatable introspection
         return model
     }
 }
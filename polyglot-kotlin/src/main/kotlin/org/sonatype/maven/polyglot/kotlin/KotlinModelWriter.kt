@@ -5,6 +5,10 @@ import org.apache.maven.project.MavenProject
 import org.slf4j.LoggerFactory
 import org.sonatype.maven.polyglot.io.ModelWriterSupport
 import org.sonatype.maven.polyglot.kotlin.serialization.ModelScriptWriter
+import java.io.BufferedOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.io.OutputStreamWriter
 import java.io.StringWriter
 import java.io.Writer
 import javax.inject.Inject
@@ -22,18 +26,39 @@ class KotlinModelWriter : ModelWriterSupport() {
     private lateinit var projectProvider: Provider<MavenProject>
 
     override fun write(output: Writer, options: Map<String, Any>, model: Model) {
-        output.write(with(StringWriter(1024)) {
-            val config = HashMap<String, Any>(options)
-            config.putIfAbsent("xml.dsl.enabled", projectProvider.get()?.properties?.getProperty("polyglot-kotlin.xml-dsl-enabled", "true") ?: "true")
-            config.putIfAbsent("flavor", projectProvider.get()?.properties?.getProperty("polyglot-kotlin.flavor", "mixed") ?: "mixed")
-            ModelScriptWriter(this, config).write(model)
-            val kotlinScript = toString()
-            if (log.isDebugEnabled) {
-                log.debug(({ "POM model converted from XML: \n$kotlinScript\n" })())
-            }
-            kotlinScript
-        })
+        write(ModelScriptWriter(output, config(options)), model, output)
         output.flush()
     }
 
+    /**
+     * Writes each model to its file with one script writer, so translating many POMs reuses its buffers.
+     */
+    fun write(models: Map<File, Model>, options: Map<String, Any>) {
+        var writer: ModelScriptWriter? = null
+        models.forEach { (file, model) ->
+            OutputStreamWriter(BufferedOutputStream(FileOutputStream(file)), Charsets.UTF_8).use { output ->
+                writer = writer ?: ModelScriptWriter(output, config(options))
+                write(writer!!, model, output)
+            }
+        }
+    }
+
+    private fun write(writer: ModelScriptWriter, model: Model, output: Writer) {
+        if (log.isDebugEnabled) {
+            // keep the script to log it, otherwise it is streamed to the output
+            val kotlinScript = StringWriter(1024).also { writer.write(model, it) }.toString()
+            log.debug(({ "POM model converted from XML: \n$kotlinScript\n" })())
+            output.write(kotlinScript)
+        } else {
+            writer.write(model, output)
+        }
+    }
+
+    private fun config(options: Map<String, Any>): Map<String, Any> {
+        val config = HashMap<String, Any>(options)
+        config.computeIfAbsent("xml.dsl.enabled") { projectProvider.get()?.properties?.getProperty("polyglot-kotlin.xml-dsl-enabled", "true") ?: "true" }
+        config.computeIfAbsent("flavor") { projectProvider.get()?.properties?.getProperty("polyglot-kotlin.flavor", "mixed") ?: "mixed" }
+        return config
+    }
+
 }
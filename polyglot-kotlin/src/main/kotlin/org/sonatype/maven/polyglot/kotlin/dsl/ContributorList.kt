@@ -3,9 +3,6 @@ package org.sonatype.maven.polyglot.kotlin.dsl
 @PomDsl
 class ContributorList : ArrayList<org.apache.maven.model.Contributor>(), Cloneable {
 
-    private val nameAndEmailRegex: Regex = Regex("""([^<]+?)\s*<\s*(([^>@]+)@[^>]+)\s*>""")
-    private val emailRegex: Regex = Regex("""([^@]+)@.+""")
-
     /**
      * Provides a callback for defining a new contributor entry. If formatted as `name <email>`, the name will be
      * extracted from the first part of the string, and the email from the second.
@@ -16,12 +13,12 @@ class ContributorList : ArrayList<org.apache.maven.model.Contributor>(), Cloneab
     fun contributor(name: String? = null, block: (Contributor.(Contributor) -> Unit)? = null) {
         val contributor = Contributor().apply {
             if (name != null) {
-                val nameAndEmailMatch = this@ContributorList.nameAndEmailRegex.matchEntire(name)
+                val nameAndEmailMatch = if (name.indexOf('<') >= 0) nameAndEmailRegex.matchEntire(name) else null
                 if (nameAndEmailMatch != null) {
                     this.name = nameAndEmailMatch.groupValues[1]
                     this.email = nameAndEmailMatch.groupValues[2]
                 } else {
-                    val emailMatch = this@ContributorList.emailRegex.matchEntire(name)
+                    val emailMatch = if (name.indexOf('@') >= 0) emailRegex.matchEntire(name) else null
                     if (emailMatch != null) {
                         this.name = emailMatch.groupValues[1]
                         this.email = emailMatch.groupValues[0]
@@ -38,4 +35,9 @@ class ContributorList : ArrayList<org.apache.maven.model.Contributor>(), Cloneab
     override fun clone(): Any {
         return super<ArrayList>.clone()
     }
+
+    private companion object {
+        val nameAndEmailRegex: Regex = Regex("""([^<]+?)\s*<\s*(([^>@]+)@[^>]+)\s*>""")
+        val emailRegex: Regex = Regex("""([^@]+)@.+""")
+    }
 }
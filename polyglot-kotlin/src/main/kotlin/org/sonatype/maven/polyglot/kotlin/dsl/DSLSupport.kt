@@ -4,23 +4,45 @@ import org.apache.commons.text.StringEscapeUtils.escapeJava
 
 internal var propertiesFactory: () -> java.util.Properties = { java.util.Properties() }
 
-private val coordinatesDelimiter = Regex(":")
-
 /**
- * Splits the supplied artifact identifier into its constituent parts.
+ * Splits the supplied artifact identifier into its constituent parts. The last part keeps any remaining delimiters.
  *
  * @param coordinates an artifact identifier in the form `groupId:artifactId[:version][:type][:classifier]`
  * @param size the size of the array to be returned
  */
 fun splitCoordinates(coordinates: String?, size: Int = 5): Array<String?> {
-    val list = Array<String?>(size) { null }
-    coordinates?.split(coordinatesDelimiter, size)?.forEachIndexed { i, str ->
-        list[i] = if (str.isBlank()) null else str.trim()
+    val parts = arrayOfNulls<String>(size)
+    if (coordinates == null) {
+        return parts
+    }
+    // scans the string once and only allocates the parts themselves
+    var start = 0
+    var i = 0
+    while (i < size - 1) {
+        val end = coordinates.indexOf(':', start)
+        if (end < 0) {
+            break
+        }
+        parts[i++] = coordinate(coordinates, start, end)
+        start = end + 1
     }
-    return list
+    parts[i] = coordinate(coordinates, start, coordinates.length)
+    return parts
+}
+
+/**
+ * Returns the trimmed part of the string between the given indexes, or `null` if it is blank.
+ */
+private fun coordinate(coordinates: String, start: Int, end: Int): String? {
+    var from = start
+    var to = end
+    while (from < to && coordinates[from].isWhitespace()) from++
+    while (to > from && coordinates[to - 1].isWhitespace()) to--
+    return if (from == to) null else coordinates.substring(from, to)
 }
 
 fun <T : Any> MutableCollection<T>.addAll(vararg t: T) {
+    (this as? ArrayList<T>)?.ensureCapacity(size + t.size)
     t.forEach { add(it) }
 }
 
@@ -30,6 +52,7 @@ fun <T : Any> MutableCollection<T>.addFirstNonNull(vararg t: T?) {
 }
 
 fun <T : Any> MutableCollection<T>.addAllNonNull(vararg t: T?) {
+    (this as? ArrayList<T>)?.ensureCapacity(size + t.size)
     t.forEach { if (it != null) add(it) }
 }
 
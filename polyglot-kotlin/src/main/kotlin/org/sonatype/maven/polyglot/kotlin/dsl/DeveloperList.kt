@@ -3,9 +3,6 @@ package org.sonatype.maven.polyglot.kotlin.dsl
 @PomDsl
 class DeveloperList : ArrayList<org.apache.maven.model.Developer>(), Cloneable {
 
-    private val nameAndEmailRegex: Regex = Regex("""([^<]+?)\s*<\s*(([^>@]+)@[^>]+)\s*>""")
-    private val emailRegex: Regex = Regex("""([^@]+)@.+""")
-
     /**
      * Provides a callback for defining a new developer entry. If formatted as `name <email>`, the name will be
      * extracted from the first part of the string, and the email from the second. The ID will be extracted from the
@@ -17,13 +14,13 @@ class DeveloperList : ArrayList<org.apache.maven.model.Developer>(), Cloneable {
     fun developer(nameOrId: String? = null, block: (Developer.(Developer) -> Unit)? = null) {
         val developer = Developer().apply {
             if (nameOrId != null) {
-                val nameAndEmailMatch = this@DeveloperList.nameAndEmailRegex.matchEntire(nameOrId)
+                val nameAndEmailMatch = if (nameOrId.indexOf('<') >= 0) nameAndEmailRegex.matchEntire(nameOrId) else null
                 if (nameAndEmailMatch != null) {
                     this.id = nameAndEmailMatch.groupValues[3]
                     this.name = nameAndEmailMatch.groupValues[1]
                     this.email = nameAndEmailMatch.groupValues[2]
                 } else {
-                    val emailMatch = this@DeveloperList.emailRegex.matchEntire(nameOrId)
+                    val emailMatch = if (nameOrId.indexOf('@') >= 0) emailRegex.matchEntire(nameOrId) else null
                     if (emailMatch != null) {
                         this.id = emailMatch.groupValues[1]
                         this.name = emailMatch.groupValues[1]
@@ -42,4 +39,9 @@ class DeveloperList : ArrayList<org.apache.maven.model.Developer>(), Cloneable {
     override fun clone(): Any {
         return super<ArrayList>.clone()
     }
+
+    private companion object {
+        val nameAndEmailRegex: Regex = Regex("""([^<]+?)\s*<\s*(([^>@]+)@[^>]+)\s*>""")
+        val emailRegex: Regex = Regex("""([^@]+)@.+""")
+    }
 }
@@ -0,0 +1,12 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import java.io.File
+import kotlin.script.experimental.api.SourceCode
+
+/**
+ * Script text read from a stream, reported under the location it was read from.
+ */
+class LocatedScriptSource(override val text: String, location: File) : SourceCode {
+    override val name: String = location.name
+    override val locationId: String = location.path
+}
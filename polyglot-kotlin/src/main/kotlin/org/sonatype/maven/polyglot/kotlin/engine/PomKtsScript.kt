@@ -1,5 +1,6 @@
 package org.sonatype.maven.polyglot.kotlin.engine
 
+import org.sonatype.maven.polyglot.cache.ModelCache
 import org.sonatype.maven.polyglot.execute.ExecuteContext
 import org.sonatype.maven.polyglot.kotlin.dsl.PomDsl
 import org.sonatype.maven.polyglot.kotlin.dsl.Project
@@ -32,9 +33,19 @@ abstract class PomKtsScript(val script: File, val basedir: File, val model: Proj
      */
     @Suppress("unused")
     fun eval(script: File) {
+        ModelCache.recordInclude(script)
         ScriptHost.eval(script, basedir, model)
     }
 
+    /**
+     * Invokes the independent scripts at the supplied locations in order, compiling them concurrently first
+     */
+    @Suppress("unused")
+    fun eval(vararg scripts: File) {
+        scripts.forEach { ModelCache.recordInclude(it) }
+        ScriptHost.eval(scripts.asList(), basedir, model)
+    }
+
     /**
      * Invokes the script at the supplied location
      */
@@ -42,4 +53,12 @@ abstract class PomKtsScript(val script: File, val basedir: File, val model: Proj
     fun ExecuteContext.eval(taskScript: File) {
         ScriptHost.eval(taskScript, this)
     }
+
+    /**
+     * Invokes the independent task scripts at the supplied locations in order, compiling them concurrently first
+     */
+    @Suppress("unused")
+    fun ExecuteContext.eval(vararg taskScripts: File) {
+        ScriptHost.eval(taskScripts.asList(), this)
+    }
 }
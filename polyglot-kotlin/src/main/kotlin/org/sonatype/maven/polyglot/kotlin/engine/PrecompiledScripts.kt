@@ -0,0 +1,114 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.slf4j.LoggerFactory
+import org.sonatype.maven.polyglot.Constants
+import org.sonatype.maven.polyglot.io.FileSupport
+import java.io.File
+import java.nio.file.Files
+import java.security.MessageDigest
+import java.util.jar.JarEntry
+import java.util.jar.JarFile
+import java.util.jar.JarInputStream
+import java.util.jar.JarOutputStream
+import java.util.jar.Manifest
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.script.experimental.api.ScriptCompilationConfiguration
+import kotlin.script.experimental.api.SourceCode
+import kotlin.script.experimental.api.baseClass
+import kotlin.script.experimental.jvm.impl.KJvmCompiledScript
+import kotlin.script.experimental.jvmhost.loadScriptFromJar
+import kotlin.script.experimental.jvmhost.saveToJar
+
+/**
+ * Ahead of time compiled scripts, stored as `<script>.jar` next to the script they were compiled from.
+ *
+ * A bundle records a digest of the script text, the script template, the polyglot version and the Kotlin version, and
+ * is only used while all of them match. Unlike [ScriptCache] entries the digest leaves out the local classpath, so
+ * bundles can be produced on one machine and used on another.
+ *
+ * The digest only ties a bundle to the source it claims to be compiled from, it proves nothing about the bytecode in
+ * it, and loading a bundle runs that bytecode while the POM is read. Bundles are therefore only loaded when
+ * `polyglot.kotlin.precompiled` is `true`, which must only be set where the bundles next to the scripts are as
+ * trusted as the scripts themselves, e.g. because they are produced by the build of the same checkout.
+ */
+object PrecompiledScripts {
+
+    const val ENABLED_PROPERTY = "polyglot.kotlin.precompiled"
+
+    private const val KEY_ATTRIBUTE = "Polyglot-Script-Key"
+
+    private val log = LoggerFactory.getLogger(PrecompiledScripts::class.java)
+
+    fun bundleFile(script: File): File = File(script.absoluteFile.parentFile, script.name + ".jar")
+
+    /**
+     * Returns the precompiled script or `null` if loading bundles is not enabled or there is no bundle matching the
+     * source.
+     */
+    fun load(script: File, source: SourceCode, configuration: ScriptCompilationConfiguration): CompiledScript? {
+        if (!java.lang.Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return null
+        }
+        val bundle = bundleFile(script)
+        if (!bundle.isFile) {
+            return null
+        }
+        return try {
+            val key = JarFile(bundle).use { it.manifest?.mainAttributes?.getValue(KEY_ATTRIBUTE) }
+            if (key == key(source, configuration)) {
+                // the classpath recorded in the bundle is machine specific, the script loader provides it anyway
+                bundle.loadScriptFromJar(checkMissingDependencies = false)
+            } else {
+                log.debug("Ignoring outdated precompiled script {}", bundle)
+                null
+            }
+        } catch (e: Exception) {
+            log.debug("Ignoring unreadable precompiled script {}", bundle, e)
+            null
+        }
+    }
+
+    /**
+     * Writes the bundle of the compiled script.
+     */
+    fun write(script: File, source: SourceCode, configuration: ScriptCompilationConfiguration,
+              compiled: KJvmCompiledScript): File {
+        val bundle = bundleFile(script)
+        val dir = bundle.parentFile.toPath()
+        val compiledJar = Files.createTempFile(dir, bundle.name, ".tmp")
+        val keyedJar = Files.createTempFile(dir, bundle.name, ".tmp")
+        try {
+            compiled.saveToJar(compiledJar.toFile())
+            JarInputStream(Files.newInputStream(compiledJar)).use { input ->
+                val manifest = input.manifest ?: Manifest()
+                manifest.mainAttributes.putValue(KEY_ATTRIBUTE, key(source, configuration))
+                JarOutputStream(Files.newOutputStream(keyedJar), manifest).use { output ->
+                    generateSequence { input.nextJarEntry }.forEach { entry ->
+                        output.putNextEntry(JarEntry(entry.name))
+                        input.copyTo(output)
+                        output.closeEntry()
+                    }
+                }
+            }
+            FileSupport.move(keyedJar, bundle.toPath())
+        } finally {
+            Files.deleteIfExists(compiledJar)
+            Files.deleteIfExists(keyedJar)
+        }
+        return bundle
+    }
+
+    private fun key(source: SourceCode, configuration: ScriptCompilationConfiguration): String {
+        val md = FileSupport.newDigest()
+        md.update(Constants.getVersion())
+        md.update(KotlinVersion.CURRENT.toString())
+        md.update(configuration[ScriptCompilationConfiguration.baseClass]?.typeName)
+        md.update(source.text)
+        return FileSupport.toHex(md.digest())
+    }
+
+    private fun MessageDigest.update(value: String?) {
+        update(value.toString().toByteArray(Charsets.UTF_8))
+        update(0.toByte())
+    }
+}
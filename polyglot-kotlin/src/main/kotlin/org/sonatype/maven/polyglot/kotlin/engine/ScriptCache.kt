@@ -0,0 +1,136 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.slf4j.LoggerFactory
+import org.sonatype.maven.polyglot.Constants
+import org.sonatype.maven.polyglot.io.FileSupport
+import java.io.File
+import java.nio.file.Files
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.script.experimental.api.ScriptCompilationConfiguration
+import kotlin.script.experimental.api.SourceCode
+import kotlin.script.experimental.api.baseClass
+import kotlin.script.experimental.api.defaultImports
+import kotlin.script.experimental.api.dependencies
+import kotlin.script.experimental.api.importScripts
+import kotlin.script.experimental.jvm.CompiledJvmScriptsCache
+import kotlin.script.experimental.jvm.JvmDependency
+import kotlin.script.experimental.jvm.impl.KJvmCompiledScript
+import kotlin.script.experimental.jvmhost.loadScriptFromJar
+import kotlin.script.experimental.jvmhost.saveToJar
+
+/**
+ * Persistent cache of compiled scripts, stored as one jar per script.
+ *
+ * Entries are keyed by the script text, the texts of its imported scripts, the script template, its default imports
+ * and classpath, including the size and modification time of its jars, the polyglot version and the Kotlin version,
+ * so a changed script or a rebuilt DSL never hits a stale entry. The cache is enabled by default and stored in `~/.m2/polyglot/kotlin-scripts`; set `polyglot.kotlin.cache`
+ * to `false` to disable it or `polyglot.kotlin.cache.dir` to move it. At most [maxEntries] scripts are kept, 256 unless
+ * `polyglot.kotlin.cache.entries` is set, and the least recently used ones are deleted beyond that.
+ */
+class ScriptCache(private val directory: File,
+                  private val maxEntries: Int = DEFAULT_MAX_ENTRIES) : CompiledJvmScriptsCache {
+
+    private val log = LoggerFactory.getLogger(ScriptCache::class.java)
+
+    override fun get(script: SourceCode, scriptCompilationConfiguration: ScriptCompilationConfiguration): CompiledScript? {
+        val entry = entryFile(script, scriptCompilationConfiguration)
+        if (!entry.isFile) {
+            return null
+        }
+        return try {
+            entry.setLastModified(System.currentTimeMillis())
+            entry.loadScriptFromJar()
+        } catch (e: Exception) {
+            log.debug("Ignoring unreadable compiled script {}", entry, e)
+            null
+        }
+    }
+
+    override fun store(compiledScript: CompiledScript, script: SourceCode, scriptCompilationConfiguration: ScriptCompilationConfiguration) {
+        val jvmScript = compiledScript as? KJvmCompiledScript ?: return
+        val entry = entryFile(script, scriptCompilationConfiguration)
+        try {
+            Files.createDirectories(directory.toPath())
+            val temp = Files.createTempFile(directory.toPath(), entry.name, ".tmp")
+            try {
+                jvmScript.saveToJar(temp.toFile())
+                FileSupport.move(temp, entry.toPath())
+            } finally {
+                Files.deleteIfExists(temp)
+            }
+            FileSupport.prune(directory, { it.name.endsWith(".jar") }, maxEntries)
+        } catch (e: Exception) {
+            log.debug("Unable to cache compiled script {}", script.locationId ?: script.name, e)
+        }
+    }
+
+    internal fun entryFile(script: SourceCode, configuration: ScriptCompilationConfiguration): File =
+            File(directory, key(script, configuration) + ".jar")
+
+    companion object {
+        const val ENABLED_PROPERTY = "polyglot.kotlin.cache"
+
+        const val DIRECTORY_PROPERTY = "polyglot.kotlin.cache.dir"
+
+        const val MAX_ENTRIES_PROPERTY = "polyglot.kotlin.cache.entries"
+
+        const val DEFAULT_MAX_ENTRIES = 256
+
+        /**
+         * Returns the digest identifying the compiled form of the script under the given configuration.
+         */
+        fun key(script: SourceCode, configuration: ScriptCompilationConfiguration): String {
+            val md = FileSupport.newDigest()
+            md.update(Constants.getVersion())
+            md.update(KotlinVersion.CURRENT.toString())
+            md.update(configuration[ScriptCompilationConfiguration.baseClass]?.typeName)
+            configuration[ScriptCompilationConfiguration.defaultImports]?.forEach { md.update(it) }
+            configuration[ScriptCompilationConfiguration.dependencies]?.forEach { dependency ->
+                (dependency as? JvmDependency)?.classpath?.forEach {
+                    md.update(it.absolutePath)
+                    md.update(fingerprint(it))
+                }
+            }
+            configuration[ScriptCompilationConfiguration.importScripts]?.forEach { md.update(it.text) }
+            md.update(script.text)
+            return FileSupport.toHex(md.digest())
+        }
+
+        private val directoryFingerprints = ConcurrentHashMap<File, String>()
+
+        /**
+         * Identifies the content of a classpath entry, so a jar rebuilt in place, like a snapshot, changes the key. Jars
+         * are identified by size and modification time, directories by their files once per JVM, since walking them
+         * for every script would cost more than it saves.
+         */
+        private fun fingerprint(entry: File): String =
+                if (entry.isDirectory) {
+                    directoryFingerprints.computeIfAbsent(entry) { dir ->
+                        dir.walk().filter { it.isFile }
+                                .fold(0L to 0L) { (count, modified), file -> count + 1 to maxOf(modified, file.lastModified()) }
+                                .let { (count, modified) -> "$count:$modified" }
+                    }
+                } else {
+                    "${entry.length()}:${entry.lastModified()}"
+                }
+
+        private fun MessageDigest.update(value: String?) {
+            update(value.toString().toByteArray(Charsets.UTF_8))
+            update(0.toByte())
+        }
+
+        /**
+         * Returns the cache configured by the system properties or `null` if it is disabled.
+         */
+        fun fromSystemProperties(): ScriptCache? {
+            if (System.getProperty(ENABLED_PROPERTY, "true") == "false") {
+                return null
+            }
+            val dir = System.getProperty(DIRECTORY_PROPERTY)
+                    ?: listOf(System.getProperty("user.home"), ".m2", "polyglot", "kotlin-scripts").joinToString(File.separator)
+            return ScriptCache(File(dir), Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES))
+        }
+    }
+}
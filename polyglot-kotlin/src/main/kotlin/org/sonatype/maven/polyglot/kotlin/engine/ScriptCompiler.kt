@@ -0,0 +1,67 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import java.util.concurrent.CompletableFuture
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.script.experimental.api.ResultWithDiagnostics
+import kotlin.script.experimental.api.ScriptCompilationConfiguration
+import kotlin.script.experimental.api.SourceCode
+import kotlin.script.experimental.jvmhost.BasicJvmScriptingHost
+
+/**
+ * Compiles scripts for all modules of a session with one scripting host.
+ *
+ * Successfully compiled scripts are kept by content, so a task or include script shared by many modules is compiled
+ * once per build, and also once per daemon when the persistent [ScriptCache] is disabled. Like the class loaders of
+ * [ScriptLoaders], at most [capacity] scripts are kept and the least recently used one is dropped beyond that.
+ * Concurrent requests for the same script wait for a single compilation.
+ */
+internal class ScriptCompiler(private val host: BasicJvmScriptingHost,
+                              private val capacity: Int = Integer.getInteger(ScriptLoaders.CAPACITY_PROPERTY, 64)) {
+
+    private val compiled = LinkedHashMap<String, CompletableFuture<ResultWithDiagnostics<CompiledScript>>>(16, 0.75f, true)
+
+    val size: Int
+        get() = synchronized(compiled) { compiled.size }
+
+    fun compile(source: SourceCode, configuration: ScriptCompilationConfiguration): ResultWithDiagnostics<CompiledScript> {
+        val key = ScriptCache.key(source, configuration)
+        val future = CompletableFuture<ResultWithDiagnostics<CompiledScript>>()
+        synchronized(compiled) { compiled.putIfAbsent(key, future) }?.let { return it.join() }
+        val result = try {
+            host.runInCoroutineContext { host.compiler(source, configuration) }
+        } catch (e: Throwable) {
+            synchronized(compiled) { compiled.remove(key) }
+            future.completeExceptionally(e)
+            throw e
+        }
+        if (result is ResultWithDiagnostics.Failure) {
+            // the diagnostics refer to the failed source, do not hand them out for later reads
+            synchronized(compiled) { compiled.remove(key) }
+        }
+        future.complete(result)
+        trim()
+        return result
+    }
+
+    /**
+     * Drops all compiled scripts.
+     */
+    fun clear() {
+        synchronized(compiled) { compiled.clear() }
+    }
+
+    /**
+     * Drops the least recently used scripts beyond the capacity. Compilations in progress are kept, so concurrent
+     * requests still share them.
+     */
+    private fun trim() {
+        synchronized(compiled) {
+            val iterator = compiled.values.iterator()
+            while (compiled.size > capacity && iterator.hasNext()) {
+                if (iterator.next().isDone) {
+                    iterator.remove()
+                }
+            }
+        }
+    }
+}
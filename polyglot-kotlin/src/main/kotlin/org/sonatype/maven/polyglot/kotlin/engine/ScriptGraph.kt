@@ -0,0 +1,125 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.sonatype.maven.polyglot.io.FileSupport
+import java.io.File
+import java.util.ArrayDeque
+import java.util.Collections
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.script.experimental.api.ResultWithDiagnostics
+import kotlin.script.experimental.api.ScriptCompilationConfiguration
+import kotlin.script.experimental.api.SourceCode
+import kotlin.script.experimental.api.asSuccess
+
+/**
+ * The last compilation result of each script file evaluated in this JVM, together with the scripts it included through
+ * `eval(File)` during its last evaluation.
+ *
+ * A script is compiled again when the digest of its text differs, the size and modification time of a file alone miss
+ * an edit within the granularity of the file system clock. [outdated] follows the includes, so a daemon or IDE session
+ * can tell which scripts of a POM changed since it was last evaluated. Like [ScriptCompiler], at most [capacity]
+ * scripts and include lists are kept and the least recently used one is dropped beyond that.
+ */
+internal class ScriptGraph(private val capacity: Int = Integer.getInteger(ScriptLoaders.CAPACITY_PROPERTY, 64)) {
+
+    private class Entry(val length: Long,
+                        val digest: String,
+                        val configuration: ScriptCompilationConfiguration,
+                        val compiled: CompiledScript) {
+
+        fun isCurrent(file: File) = file.length() == length && digest(file.readText()) == digest
+
+        fun matches(text: String, configuration: ScriptCompilationConfiguration) =
+                this.configuration === configuration && digest(text) == digest
+    }
+
+    private val entries = lruMap<Entry>()
+
+    private val includes = lruMap<MutableSet<File>>()
+
+    private val evaluating = ThreadLocal<ArrayDeque<File>>()
+
+    /**
+     * Returns the previous compilation result of the script while it is unchanged, otherwise the result of `compile`.
+     */
+    fun compile(script: File,
+                source: SourceCode,
+                configuration: ScriptCompilationConfiguration,
+                compile: () -> ResultWithDiagnostics<CompiledScript>): ResultWithDiagnostics<CompiledScript> {
+        val file = script.absoluteFile
+        // the source keeps the text it read, so the digest is the one of the text the compiler sees
+        val text = source.text
+        entries[file]?.takeIf { it.matches(text, configuration) }?.let { return it.compiled.asSuccess() }
+        return compile().also { result ->
+            if (result is ResultWithDiagnostics.Success) {
+                entries[file] = Entry(text.toByteArray().size.toLong(), digest(text), configuration, result.value)
+            }
+        }
+    }
+
+    /**
+     * Returns whether the script file is unchanged since it was compiled with the configuration.
+     */
+    fun isCompiled(script: File, configuration: ScriptCompilationConfiguration): Boolean {
+        val file = script.absoluteFile
+        return entries[file]?.takeIf { it.configuration === configuration }?.isCurrent(file) == true
+    }
+
+    /**
+     * Runs the evaluation of the script, recording it as an include of the script being evaluated on this thread.
+     */
+    fun <T> evaluate(script: File, evaluation: () -> T): T {
+        val file = script.absoluteFile
+        val stack = evaluating.get() ?: ArrayDeque<File>().also { evaluating.set(it) }
+        stack.peek()?.let { parent -> includes[parent]?.add(file) }
+        includes[file] = ConcurrentHashMap.newKeySet()
+        stack.push(file)
+        try {
+            return evaluation()
+        } finally {
+            stack.pop()
+            if (stack.isEmpty()) {
+                evaluating.remove()
+            }
+        }
+    }
+
+    /**
+     * Returns the script and the scripts it transitively includes that changed since they were last compiled, or were
+     * never compiled at all.
+     */
+    fun outdated(script: File): List<File> {
+        val outdated = ArrayList<File>()
+        val visited = HashSet<File>()
+        val pending = ArrayDeque<File>().apply { add(script.absoluteFile) }
+        while (pending.isNotEmpty()) {
+            val file = pending.poll()
+            if (!visited.add(file)) {
+                continue
+            }
+            if (entries[file]?.isCurrent(file) != true) {
+                outdated.add(file)
+            }
+            includes[file]?.let { pending.addAll(it) }
+        }
+        return outdated
+    }
+
+    /**
+     * Forgets all scripts and includes.
+     */
+    fun clear() {
+        entries.clear()
+        includes.clear()
+    }
+
+    private fun <V> lruMap(): MutableMap<File, V> =
+            Collections.synchronizedMap(object : LinkedHashMap<File, V>(16, 0.75f, true) {
+                override fun removeEldestEntry(eldest: MutableMap.MutableEntry<File, V>) = size > capacity
+            })
+
+    private companion object {
+
+        fun digest(text: String): String = FileSupport.toHex(FileSupport.newDigest().digest(text.toByteArray()))
+    }
+}
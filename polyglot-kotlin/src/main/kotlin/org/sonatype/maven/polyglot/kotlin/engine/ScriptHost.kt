@@ -3,47 +3,192 @@ package org.sonatype.maven.polyglot.kotlin.engine
 import org.apache.maven.MavenExecutionException
 import org.sonatype.maven.polyglot.execute.ExecuteContext
 import org.sonatype.maven.polyglot.kotlin.dsl.Project
+import org.sonatype.maven.polyglot.metrics.Phase
+import org.sonatype.maven.polyglot.metrics.PolyglotMetrics
 import java.io.File
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import kotlin.script.experimental.api.ResultWithDiagnostics
 import kotlin.script.experimental.api.ScriptCompilationConfiguration
 import kotlin.script.experimental.api.ScriptDiagnostic
 import kotlin.script.experimental.api.ScriptEvaluationConfiguration
+import kotlin.script.experimental.api.SourceCode
 import kotlin.script.experimental.api.constructorArgs
+import kotlin.script.experimental.api.asSuccess
+import kotlin.script.experimental.api.onSuccess
+import kotlin.script.experimental.api.valueOrThrow
+import kotlin.script.experimental.api.with
+import kotlin.script.experimental.host.ScriptingHostConfiguration
 import kotlin.script.experimental.host.toScriptSource
+import kotlin.script.experimental.jvm.compilationCache
+import kotlin.script.experimental.jvm.impl.KJvmCompiledScript
 import kotlin.script.experimental.jvm.baseClassLoader
 import kotlin.script.experimental.jvm.jvm
 import kotlin.script.experimental.jvmhost.BasicJvmScriptingHost
 import kotlin.script.experimental.jvmhost.createJvmCompilationConfigurationFromTemplate
 
+/**
+ * Compiles and evaluates POM and task scripts with one scripting host for the whole JVM.
+ *
+ * Safe for concurrent use without serializing evaluations: compiled scripts, their class loaders and the include graph
+ * are kept in concurrent structures, while the state of a single evaluation, like the model and recorded includes,
+ * stays on the evaluating thread.
+ */
 object ScriptHost {
-    private val host = BasicJvmScriptingHost()
+    private val host = BasicJvmScriptingHost(ScriptingHostConfiguration {
+        ScriptCache.fromSystemProperties()?.let { jvm { compilationCache(it) } }
+    })
+    private val compiler = ScriptCompiler(host)
+    private val graph = ScriptGraph()
+    private val loaders = ScriptLoaders.fromSystemProperties()
+
+    // the script classpath is resolved once per template, the evaluation configurations only vary by arguments
     private val pomCompilationConfig = createJvmCompilationConfigurationFromTemplate<PomKtsScript>()
     private val taskCompilationConfig = createJvmCompilationConfigurationFromTemplate<TaskKtsScript>()
+    private val pomEvaluationConfig = ScriptEvaluationConfiguration {
+        jvm {
+            baseClassLoader(PomKtsScript::class.java.classLoader)
+        }
+    }
+    private val taskEvaluationConfig = ScriptEvaluationConfiguration {
+        jvm {
+            baseClassLoader(TaskKtsScript::class.java.classLoader)
+        }
+    }
+    private val evaluated = ThreadLocal<MutableMap<File, Pair<SourceCode, ScriptCompilationConfiguration>>>()
+    private val compileExecutor by lazy {
+        val count = AtomicInteger()
+        val threads = Runtime.getRuntime().availableProcessors()
+        ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, LinkedBlockingQueue()) {
+            Thread(it, "polyglot-kotlin-compile-${count.incrementAndGet()}").apply { isDaemon = true }
+        }
+    }
 
     fun eval(script: File, basedir: File, model: Project) {
-        eval(script, pomCompilationConfig) {
+        eval(script.toScriptSource(), script, basedir, model)
+    }
+
+    /**
+     * Evaluates a POM script that is already in memory, `script` is the location it is reported under.
+     */
+    fun eval(sourceCode: SourceCode, script: File, basedir: File, model: Project) {
+        eval(sourceCode, script, pomCompilationConfig, pomEvaluationConfig.with {
             constructorArgs(script, basedir, model)
-            jvm {
-                baseClassLoader(PomKtsScript::class.java.classLoader)
-            }
-        }
+        })
     }
 
     fun eval(script: File, executeContext: ExecuteContext) {
-        eval(script, taskCompilationConfig) {
+        eval(script.toScriptSource(), script, taskCompilationConfig, taskEvaluationConfig.with {
             constructorArgs(script, executeContext)
-            jvm {
-                baseClassLoader(TaskKtsScript::class.java.classLoader)
-            }
+        })
+    }
+
+    /**
+     * Compiles the independent POM scripts concurrently, then evaluates them one after another in the given order.
+     */
+    fun eval(scripts: List<File>, basedir: File, model: Project) {
+        compileAll(scripts, pomCompilationConfig)
+        scripts.forEach { eval(it, basedir, model) }
+    }
+
+    /**
+     * Compiles the independent task scripts concurrently, then evaluates them one after another in the given order.
+     */
+    fun eval(scripts: List<File>, executeContext: ExecuteContext) {
+        compileAll(scripts, taskCompilationConfig)
+        scripts.forEach { eval(it, executeContext) }
+    }
+
+    /**
+     * Starts compiling the scripts that changed since they were last compiled. The evaluation of each script waits for
+     * its own compilation, so the compile phase is only recorded there, and failures are reported in order.
+     */
+    private fun compileAll(scripts: List<File>, compilationConfig: ScriptCompilationConfiguration) {
+        val changed = scripts.filterNot { graph.isCompiled(it, compilationConfig) }
+        if (changed.size < 2) {
+            return
         }
+        changed.forEach { script ->
+            compileExecutor.execute { runCatching { compiler.compile(script.toScriptSource(), compilationConfig) } }
+        }
+    }
+
+    /**
+     * The number of scripts handed to the compile threads so far.
+     */
+    internal val concurrentCompilations: Long
+        get() = compileExecutor.taskCount
+
+    /**
+     * Returns the script and the scripts it includes that changed since they were last compiled, an empty list means
+     * evaluating the script again only reuses compiled scripts.
+     */
+    fun outdated(script: File): List<File> = graph.outdated(script)
+
+    /**
+     * The number of scripts compiled by this JVM that are still kept in memory.
+     */
+    internal val compiledScripts: Int
+        get() = compiler.size
+
+    /**
+     * Forgets the scripts compiled so far, so the next evaluations start from the bundles and the persistent cache,
+     * like a new JVM would.
+     */
+    internal fun clearCompiledScripts() {
+        graph.clear()
+        compiler.clear()
     }
 
-    private fun eval(script: File,
+    /**
+     * Evaluates the POM to find the scripts it includes and writes a [PrecompiledScripts] bundle for each of them.
+     *
+     * @return the bundles written
+     */
+    fun precompile(pom: File): List<File> {
+        val scripts = LinkedHashMap<File, Pair<SourceCode, ScriptCompilationConfiguration>>()
+        evaluated.set(scripts)
+        try {
+            eval(pom, pom.absoluteFile.parentFile, Project(pom))
+        } finally {
+            evaluated.remove()
+        }
+        // compile again without any cache, the bundles need the classes and not a script loaded from a jar
+        val uncachedHost = BasicJvmScriptingHost()
+        return scripts.map { (script, compilation) ->
+            val (sourceCode, compilationConfig) = compilation
+            val compiled = uncachedHost.runInCoroutineContext { uncachedHost.compiler(sourceCode, compilationConfig) }
+                    .valueOrThrow() as KJvmCompiledScript
+            PrecompiledScripts.write(script, sourceCode, compilationConfig, compiled)
+        }
+    }
+
+    private fun eval(sourceCode: SourceCode,
+                     script: File,
                      compilationConfig: ScriptCompilationConfiguration,
-                     evaluationConfigBuilder: ScriptEvaluationConfiguration.Builder.() -> Unit) {
-        val sourceCode = script.readText().toScriptSource()
-        val evaluationConfig = ScriptEvaluationConfiguration(evaluationConfigBuilder)
-        val result = host.eval(sourceCode, compilationConfig, evaluationConfig)
+                     evaluationConfig: ScriptEvaluationConfiguration) {
+        evaluated.get()?.put(script, sourceCode to compilationConfig)
+        val compileStart = System.nanoTime()
+        val compiled = graph.compile(script, sourceCode, compilationConfig) {
+            PrecompiledScripts.load(script, sourceCode, compilationConfig)?.asSuccess()
+                    ?: compiler.compile(sourceCode, compilationConfig)
+        }
+        PolyglotMetrics.record(Phase.COMPILE, compileStart)
+        val result = compiled.onSuccess {
+            val evalStart = System.nanoTime()
+            graph.evaluate(script) {
+                if (it is KJvmCompiledScript) {
+                    loaders.use(it, evaluationConfig) { loaded ->
+                        host.runInCoroutineContext { host.evaluator(loaded, evaluationConfig) }
+                    }
+                } else {
+                    host.runInCoroutineContext { host.evaluator(it, evaluationConfig) }
+                }
+            }
+                    .also { PolyglotMetrics.record(Phase.EVALUATE, evalStart) }
+        }
         result.reports.filter { it.exception != null }.forEach {
             System.err.println(it)
             it.exception?.printStackTrace()
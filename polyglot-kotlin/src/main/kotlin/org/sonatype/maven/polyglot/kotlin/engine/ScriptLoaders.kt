@@ -0,0 +1,126 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.slf4j.LoggerFactory
+import org.sonatype.maven.polyglot.metrics.Counter
+import org.sonatype.maven.polyglot.metrics.PolyglotMetrics
+import java.io.Closeable
+import kotlin.reflect.KClass
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.script.experimental.api.ResultWithDiagnostics
+import kotlin.script.experimental.api.ScriptEvaluationConfiguration
+import kotlin.script.experimental.api.asDiagnostics
+import kotlin.script.experimental.api.asSuccess
+import kotlin.script.experimental.jvm.baseClassLoader
+import kotlin.script.experimental.jvm.impl.KJvmCompiledModuleInMemory
+import kotlin.script.experimental.jvm.impl.KJvmCompiledScript
+import kotlin.script.experimental.jvm.impl.getOrCreateActualClassloader
+import kotlin.script.experimental.jvm.jvm
+
+/**
+ * Class loaders of compiled scripts, so evaluating a script again reuses its classes instead of defining them anew.
+ *
+ * At most [capacity] loaders are kept. Beyond that the least recently used loader is dropped and closed, together with
+ * the loaders created for it below the base class loader, which keeps the metaspace of long-lived JVMs like mvnd flat.
+ * The capacity defaults to 64 and is set by `polyglot.kotlin.classloaders`, `0` creates a new loader per evaluation.
+ * Loaders are only closed once no evaluation uses them anymore. Created and evicted loaders and the script classes
+ * they define are counted in the polyglot metrics.
+ */
+internal class ScriptLoaders(private val capacity: Int) {
+
+    private class Loader(val classLoader: ClassLoader, val baseClassLoader: ClassLoader?) {
+        var users = 0
+        var evicted = false
+    }
+
+    private val log = LoggerFactory.getLogger(ScriptLoaders::class.java)
+
+    private val loaders = object : LinkedHashMap<KJvmCompiledScript, Loader>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<KJvmCompiledScript, Loader>): Boolean {
+            if (size <= capacity) {
+                return false
+            }
+            PolyglotMetrics.count(Counter.SCRIPT_LOADER_EVICTED)
+            eldest.value.evicted = true
+            if (eldest.value.users == 0) {
+                close(eldest.value)
+            }
+            return true
+        }
+    }
+
+    val size: Int
+        @Synchronized get() = loaders.size
+
+    /**
+     * Runs the block with the compiled script bound to its class loader, so it is evaluated with the classes loaded
+     * before. A loader evicted by another thread meanwhile is closed once the block is done with it.
+     */
+    fun <T> use(script: KJvmCompiledScript, configuration: ScriptEvaluationConfiguration, block: (CompiledScript) -> T): T {
+        val loader = acquire(script, configuration)
+        try {
+            return block(LoadedScript(script, loader.classLoader))
+        } finally {
+            release(loader)
+        }
+    }
+
+    @Synchronized
+    private fun acquire(script: KJvmCompiledScript, configuration: ScriptEvaluationConfiguration): Loader {
+        val loader = loaders[script] ?: Loader(script.getOrCreateActualClassloader(configuration),
+                configuration[ScriptEvaluationConfiguration.jvm.baseClassLoader]).also { created ->
+            PolyglotMetrics.count(Counter.SCRIPT_LOADER_CREATED)
+            (script.getCompiledModule() as? KJvmCompiledModuleInMemory)?.compilerOutputFiles?.keys
+                    ?.filter { it.endsWith(".class") }
+                    ?.forEach { _ -> PolyglotMetrics.count(Counter.SCRIPT_CLASS_DEFINED) }
+            if (capacity > 0) {
+                loaders[script] = created
+            } else {
+                // never stored, so it is closed as soon as the evaluation is done with it
+                created.evicted = true
+            }
+        }
+        loader.users++
+        return loader
+    }
+
+    @Synchronized
+    private fun release(loader: Loader) {
+        loader.users--
+        if (loader.users == 0 && loader.evicted) {
+            close(loader)
+        }
+    }
+
+    private fun close(loader: Loader) {
+        var classLoader = loader.classLoader
+        while (true) {
+            try {
+                (classLoader as? Closeable)?.close()
+            } catch (e: Exception) {
+                log.debug("Unable to close script class loader {}", classLoader, e)
+            }
+            val parent = classLoader.parent
+            if (loader.baseClassLoader == null || parent == null || parent === loader.baseClassLoader) {
+                break
+            }
+            classLoader = parent
+        }
+    }
+
+    private class LoadedScript(private val script: KJvmCompiledScript,
+                               private val classLoader: ClassLoader) : CompiledScript by script {
+
+        override suspend fun getClass(scriptEvaluationConfiguration: ScriptEvaluationConfiguration?): ResultWithDiagnostics<KClass<*>> =
+                try {
+                    classLoader.loadClass(script.scriptClassFQName).kotlin.asSuccess()
+                } catch (e: Throwable) {
+                    ResultWithDiagnostics.Failure(e.asDiagnostics(customMessage = "Unable to load script class ${script.scriptClassFQName}"))
+                }
+    }
+
+    companion object {
+        const val CAPACITY_PROPERTY = "polyglot.kotlin.classloaders"
+
+        fun fromSystemProperties() = ScriptLoaders(Integer.getInteger(CAPACITY_PROPERTY, 64))
+    }
+}
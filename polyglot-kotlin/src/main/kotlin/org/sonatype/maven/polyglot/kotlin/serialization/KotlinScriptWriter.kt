@@ -3,8 +3,8 @@ package org.sonatype.maven.polyglot.kotlin.serialization
 import org.sonatype.maven.polyglot.kotlin.dsl.escape
 import org.sonatype.maven.polyglot.kotlin.dsl.escapeRaw
 import java.io.Writer
-import java.util.*
-import kotlin.collections.ArrayList
+import java.util.ArrayDeque
+import java.util.Deque
 
 internal open class KotlinScriptWriter(writer: Writer) {
 
@@ -12,8 +12,9 @@ internal open class KotlinScriptWriter(writer: Writer) {
         BLOCK, FUNCTION, FIELD, RAW_STRING
     }
 
-    private val state: Deque<SerializerState> = LinkedList<SerializerState>()
+    private val state: Deque<SerializerState> = ArrayDeque<SerializerState>()
     private val indentation = "    "
+    private val indents = ArrayList<String>()
     protected var indentLevel = 0
     private var lineStart = true
     private val argumentWrapThreshold = 50
@@ -21,28 +22,119 @@ internal open class KotlinScriptWriter(writer: Writer) {
     private val expressionText = Regex("""[$][{][^}]+[}]""")
     private val booleanLiteral = Regex("true|false")
 
-    class OUT(private val out: Writer) : Writer() {
+    /**
+     * Buffers the script and passes it to the target writer in chunks, the buffer is kept when the target changes.
+     */
+    class OUT(private var out: Writer) : Writer() {
 
         private var position: Long = 0
 
+        private val buffer = CharArray(8192)
+
+        private var count = 0
+
         override fun write(cbuf: CharArray, off: Int, len: Int) {
-            out.write(cbuf, off, len)
+            if (len > buffer.size - count) {
+                flushBuffer()
+                if (len > buffer.size) {
+                    out.write(cbuf, off, len)
+                    position += len
+                    return
+                }
+            }
+            System.arraycopy(cbuf, off, buffer, count, len)
+            count += len
+            position += len
+        }
+
+        override fun write(str: String, off: Int, len: Int) {
+            if (len > buffer.size - count) {
+                flushBuffer()
+                if (len > buffer.size) {
+                    out.write(str, off, len)
+                    position += len
+                    return
+                }
+            }
+            str.toCharArray(buffer, count, off, off + len)
+            count += len
             position += len
         }
 
+        private fun flushBuffer() {
+            if (count > 0) {
+                out.write(buffer, 0, count)
+                count = 0
+            }
+        }
+
         override fun flush() {
+            flushBuffer()
             out.flush()
         }
 
         override fun close() {
+            flushBuffer()
             out.close()
         }
+
+        /**
+         * Flushes the script written so far and continues with the given writer.
+         */
+        fun retarget(writer: Writer) {
+            flush()
+            out = writer
+            position = 0
+        }
+
+        /**
+         * Flushes the script written so far and lets go of the target writer, so its owner may close it.
+         */
+        fun detach() {
+            flush()
+            out = DETACHED
+        }
+
+        private companion object {
+            val DETACHED = object : Writer() {
+                override fun write(cbuf: CharArray, off: Int, len: Int) =
+                        throw IllegalStateException("The script writer has no target")
+
+                override fun flush() {}
+
+                override fun close() {}
+            }
+        }
+    }
+
+    /**
+     * Flushes the script to the target writer.
+     */
+    fun flush() {
+        out.flush()
+    }
+
+    /**
+     * Flushes the script and lets go of the target writer.
+     */
+    protected fun detach() {
+        out.detach()
+    }
+
+    /**
+     * Flushes the script written so far and starts over on the given writer.
+     */
+    protected fun reset(writer: Writer) {
+        out.retarget(writer)
+        state.clear()
+        indentLevel = 0
+        lineStart = true
     }
 
     protected fun write(str: String): KotlinScriptWriter {
         if (lineStart) {
-            for (i in 1..indentLevel) {
-                out.write(indentation)
+            if (indentLevel > 0) {
+                out.write(indent(indentLevel))
             }
             lineStart = false
         }
@@ -50,6 +142,13 @@ internal open class KotlinScriptWriter(writer: Writer) {
         return this
     }
 
+    private fun indent(level: Int): String {
+        while (indents.size < level) {
+            indents.add(indentation.repeat(indents.size + 1))
+        }
+        return indents[level - 1]
+    }
+
     private fun writeString(value: String): KotlinScriptWriter {
         val escapedValue = escape(value)
         when {
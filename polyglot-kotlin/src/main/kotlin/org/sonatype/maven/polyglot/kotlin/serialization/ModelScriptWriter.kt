@@ -135,11 +135,25 @@ internal class ModelScriptWriter(
 
     private val blockFlavor: Boolean = flavor == "block"
 
+    private val xmlDeclaration = Regex("""(?s)\Q<?\E.*?\Q?>\E\s*""")
+
     // For convenience in referencing methods inside certain lambdas
     private val out: ModelScriptWriter = this
 
     //-- Public API --------------------------------------------------------------------------------------------------//
 
+    /**
+     * Writes the model to the given writer, which is flushed but not kept afterwards.
+     */
+    fun write(model: Model, writer: Writer) {
+        reset(writer)
+        try {
+            write(model)
+        } finally {
+            detach()
+        }
+    }
+
     fun write(model: Model) {
 
         blockComment(fileComment)
@@ -211,6 +225,7 @@ internal class ModelScriptWriter(
 
             block("profiles", profiles) { forEach(out::writeProfile) }
         }
+        flush()
     }
 
     //-- Protected API -----------------------------------------------------------------------------------------------//
@@ -799,7 +814,7 @@ internal class ModelScriptWriter(
                 field(fieldName) {
                     multiLineString {
                         val str = xml.toString()
-                            .replace(Regex("""(?s)\Q<?\E.*?\Q?>\E\s*"""), "")
+                            .replace(xmlDeclaration, "")
                             .replace("$", "\${\"$\"}")
                         str.lines().forEach {
                             if (it.isNotEmpty()) {
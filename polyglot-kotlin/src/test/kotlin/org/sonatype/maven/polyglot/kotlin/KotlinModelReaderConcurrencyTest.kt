@@ -0,0 +1,94 @@
+package org.sonatype.maven.polyglot.kotlin
+
+import org.apache.maven.model.Model
+import org.apache.maven.model.building.ModelProcessor
+import org.apache.maven.model.io.ModelReader
+import org.assertj.core.api.Assertions.assertThat
+import org.codehaus.plexus.ContainerConfiguration
+import org.codehaus.plexus.PlexusConstants
+import org.codehaus.plexus.PlexusTestCase
+import org.codehaus.plexus.util.FileUtils
+import org.junit.Test
+import org.sonatype.maven.polyglot.execute.ExecuteManager
+import java.io.File
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class KotlinModelReaderConcurrencyTest : PlexusTestCase() {
+
+    private val modules = 32
+
+    private val threads = 8
+
+    override fun customizeContainerConfiguration(configuration: ContainerConfiguration?) {
+        configuration?.autoWiring = true
+        configuration?.classPathScanning = PlexusConstants.SCANNING_CACHE
+    }
+
+    @Test
+    fun testConcurrentReads() {
+        val reader = lookup(ModelReader::class.java, "kotlin")
+        val executeManager = lookup(ExecuteManager::class.java)
+        val root = File("target/test-output/concurrent").absoluteFile
+        FileUtils.deleteDirectory(root)
+        File(root, "common.kts").apply { parentFile.mkdirs() }.writeText("""project { description = "common" }""")
+        val poms = (0 until modules).map { pom(root, it) }
+
+        val start = CountDownLatch(1)
+        val executor = Executors.newFixedThreadPool(threads)
+        try {
+            // every POM is read twice, the second round mostly reuses compiled scripts and their class loaders
+            val reads = (poms + poms).map { pom ->
+                executor.submit(Callable {
+                    start.await()
+                    pom to reader.read(pom, mapOf(ModelProcessor.SOURCE to pom))
+                })
+            }
+            start.countDown()
+            reads.map { it.get(5, TimeUnit.MINUTES) }.forEach { (pom, model) ->
+                val index = pom.parentFile.name.removePrefix("module-")
+                assertThat(model.pomFile).isEqualTo(pom)
+                assertThat(model.artifactId).isEqualTo("module-$index")
+                assertThat(model.properties.getProperty("index")).isEqualTo(index)
+                assertThat(model.description).isEqualTo("common")
+                assertThat(model.name).isEqualTo("Module $index")
+                assertThat(executions(model)).containsExactly("task-$index")
+                assertThat(executeManager.getTasks(model).map { it.id }).containsExactly("task-$index")
+            }
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+
+    /**
+     * The scripts of all modules are the same and derive the module from its directory, so concurrent reads mostly
+     * contend on evaluation rather than waiting for the compiler.
+     */
+    private fun pom(root: File, index: Int): File {
+        val dir = File(root, "module-$index").apply { mkdirs() }
+        File(dir, "own.kts").writeText("""project { name = "Module " + basedir.name.removePrefix("module-") }""")
+        return File(dir, "pom.kts").apply {
+            writeText("""
+                val index = basedir.name.removePrefix("module-")
+                project {
+                    groupId("org.example")
+                    artifactId("module-" + index)
+                    version("1.0")
+                    properties {
+                        "index" to index
+                    }
+                    build {
+                        execute(id = "task-" + index, phase = "validate") {
+                            log.info("task " + index)
+                        }
+                    }
+                }
+                eval(basedir.resolve("../common.kts"), basedir.resolve("own.kts"))
+            """.trimIndent())
+        }
+    }
+
+    private fun executions(model: Model) = model.build.plugins.flatMap { it.executions }.map { it.id }
+}
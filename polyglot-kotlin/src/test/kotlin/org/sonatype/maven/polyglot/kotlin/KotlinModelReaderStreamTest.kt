@@ -0,0 +1,41 @@
+package org.sonatype.maven.polyglot.kotlin
+
+import org.apache.maven.MavenExecutionException
+import org.apache.maven.model.building.ModelProcessor
+import org.apache.maven.model.io.ModelReader
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.catchThrowableOfType
+import org.codehaus.plexus.ContainerConfiguration
+import org.codehaus.plexus.PlexusConstants
+import org.codehaus.plexus.PlexusTestCase
+import org.junit.Test
+import java.io.File
+import java.io.StringReader
+
+class KotlinModelReaderStreamTest : PlexusTestCase() {
+
+    override fun customizeContainerConfiguration(configuration: ContainerConfiguration?) {
+        configuration?.autoWiring = true
+        configuration?.classPathScanning = PlexusConstants.SCANNING_CACHE
+    }
+
+    @Test
+    fun testReadFromStream() {
+        val reader = lookup(ModelReader::class.java, "kotlin")
+        val location = File("target/test-output/stream/pom.kts")
+        val options = mapOf(ModelProcessor.SOURCE to location)
+
+        val model = reader.read(StringReader("""project { artifactId("streamed") }"""), options.toMutableMap())
+        assertThat(model.artifactId).isEqualTo("streamed")
+        assertThat(model.pomFile).isEqualTo(location.absoluteFile)
+
+        val bytes = """project { artifactId("bytes") }""".byteInputStream()
+        assertThat(reader.read(bytes, options.toMutableMap()).artifactId).isEqualTo("bytes")
+
+        val failure = catchThrowableOfType(
+                { reader.read(StringReader("project { artifactId( }"), options.toMutableMap()) },
+                MavenExecutionException::class.java)
+        assertThat(failure).hasMessageContaining("pom.kts:1:")
+        assertThat(failure.pomFile).isEqualTo(location)
+    }
+}
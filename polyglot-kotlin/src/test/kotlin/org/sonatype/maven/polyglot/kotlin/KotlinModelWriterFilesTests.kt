@@ -0,0 +1,30 @@
+package org.sonatype.maven.polyglot.kotlin
+
+import org.apache.maven.model.Model
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class KotlinModelWriterFilesTests {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @Test
+    fun `several models are written to their files`() {
+        val models = listOf("a", "b", "c").associate { artifactId ->
+            folder.newFolder(artifactId).resolve("pom.kts") to Model().apply {
+                groupId = "org.example"
+                this.artifactId = artifactId
+                version = "1.0"
+            }
+        }
+        KotlinModelWriter().write(models, mapOf("xml.dsl.enabled" to "true", "flavor" to "mixed"))
+        models.forEach { (file, model) ->
+            assertThat(file.readText(Charsets.UTF_8))
+                    .contains("\"org.example:${model.artifactId}:1.0:jar\"")
+                    .endsWith("}\n")
+        }
+    }
+}
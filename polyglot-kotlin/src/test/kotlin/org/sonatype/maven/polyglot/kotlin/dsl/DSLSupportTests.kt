@@ -5,6 +5,14 @@ import org.junit.Test
 
 class DSLSupportTests {
 
+    @Test
+    fun `splitGavtc trims parts and keeps remaining delimiters in the last part`() {
+        assertThat(splitCoordinates(" com.example : sample-lib :  : jar:tests:extra")).containsExactly("com.example", "sample-lib", null, "jar", "tests:extra")
+        assertThat(splitCoordinates("a:b:c:d", 2)).containsExactly("a", "b:c:d")
+        assertThat(splitCoordinates("   ", 1)).containsExactly(null)
+        assertThat(splitCoordinates(null, 2)).containsExactly(null, null)
+    }
+
     @Test
     fun `splitGavtc with gav (1 of 1)`() {
         assertThat(splitCoordinates("com.example:sample-lib:1.0", 3)).containsExactly("com.example", "sample-lib", "1.0")
@@ -0,0 +1,74 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import kotlin.script.experimental.api.ResultWithDiagnostics
+import kotlin.script.experimental.api.ScriptCompilationConfiguration
+import kotlin.script.experimental.api.dependencies
+import kotlin.script.experimental.host.ScriptingHostConfiguration
+import kotlin.script.experimental.host.toScriptSource
+import kotlin.script.experimental.jvm.JvmDependency
+import kotlin.script.experimental.jvm.compilationCache
+import kotlin.script.experimental.jvm.jvm
+import kotlin.script.experimental.jvmhost.BasicJvmScriptingHost
+import kotlin.script.experimental.jvmhost.createJvmCompilationConfigurationFromTemplate
+
+class ScriptCacheTests {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    @Test
+    fun `compiled scripts are stored and loaded by content`() {
+        val cache = ScriptCache(tmp.root)
+        val host = BasicJvmScriptingHost(ScriptingHostConfiguration { jvm { compilationCache(cache) } })
+        val config = createJvmCompilationConfigurationFromTemplate<PomKtsScript>()
+        val script = """project { artifactId("cached") }""".toScriptSource()
+
+        assertThat(cache.get(script, config)).isNull()
+        val compiled = host.runInCoroutineContext { host.compiler(script, config) }
+        assertThat(compiled).isInstanceOf(ResultWithDiagnostics.Success::class.java)
+        assertThat(cache.entryFile(script, config)).isFile()
+        assertThat(tmp.root.listFiles()).hasSize(1)
+
+        val loaded = cache.get(script, config)
+        assertThat(loaded).isNotNull
+        assertThat(host.runInCoroutineContext { loaded!!.getClass(null) })
+                .isInstanceOf(ResultWithDiagnostics.Success::class.java)
+
+        val changed = """project { artifactId("changed") }""".toScriptSource()
+        assertThat(cache.get(changed, config)).isNull()
+        assertThat(cache.entryFile(changed, config)).isNotEqualTo(cache.entryFile(script, config))
+    }
+
+    @Test
+    fun `least recently used scripts are deleted beyond the maximum`() {
+        val cache = ScriptCache(tmp.root, 1)
+        val host = BasicJvmScriptingHost(ScriptingHostConfiguration { jvm { compilationCache(cache) } })
+        val config = createJvmCompilationConfigurationFromTemplate<PomKtsScript>()
+        val first = """project { artifactId("first") }""".toScriptSource()
+        val second = """project { artifactId("second") }""".toScriptSource()
+
+        host.runInCoroutineContext { host.compiler(first, config) }
+        assertThat(cache.entryFile(first, config).setLastModified(1_000_000_000L)).isTrue()
+        host.runInCoroutineContext { host.compiler(second, config) }
+
+        assertThat(tmp.root.listFiles()).containsExactly(cache.entryFile(second, config))
+    }
+
+    @Test
+    fun `a classpath jar rebuilt in place changes the key`() {
+        val jar = tmp.newFile("dsl-1.0-SNAPSHOT.jar")
+        jar.writeText("first build")
+        val config = ScriptCompilationConfiguration { dependencies(JvmDependency(jar)) }
+        val script = """project { artifactId("snapshot") }""".toScriptSource()
+
+        val before = ScriptCache.key(script, config)
+        assertThat(ScriptCache.key(script, config)).isEqualTo(before)
+        jar.writeText("second build")
+        assertThat(jar.setLastModified(jar.lastModified() + 2000)).isTrue()
+        assertThat(ScriptCache.key(script, config)).isNotEqualTo(before)
+    }
+}
@@ -0,0 +1,49 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import kotlin.script.experimental.api.ResultWithDiagnostics
+import kotlin.script.experimental.api.valueOrThrow
+import kotlin.script.experimental.host.toScriptSource
+import kotlin.script.experimental.jvmhost.BasicJvmScriptingHost
+import kotlin.script.experimental.jvmhost.createJvmCompilationConfigurationFromTemplate
+
+class ScriptCompilerTests {
+
+    private val compiler = ScriptCompiler(BasicJvmScriptingHost())
+
+    private val config = createJvmCompilationConfigurationFromTemplate<PomKtsScript>()
+
+    @Test
+    fun `concurrent requests for the same script compile it once`() {
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val results = executor.invokeAll((1..4).map {
+                Callable { compiler.compile("""project { artifactId("shared") }""".toScriptSource(), config) }
+            }).map { it.get().valueOrThrow() }
+            assertThat(results.distinct()).hasSize(1)
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun `failed compilations are not kept`() {
+        val broken = "project { artifactId( }"
+        assertThat(compiler.compile(broken.toScriptSource(), config)).isInstanceOf(ResultWithDiagnostics.Failure::class.java)
+        val first = compiler.compile(broken.toScriptSource(), config)
+        assertThat(compiler.compile(broken.toScriptSource(), config)).isNotSameAs(first)
+    }
+
+    @Test
+    fun `least recently used scripts are dropped beyond the capacity`() {
+        val bounded = ScriptCompiler(BasicJvmScriptingHost(), 1)
+        val first = bounded.compile("""project { artifactId("a") }""".toScriptSource(), config).valueOrThrow()
+        assertThat(bounded.compile("""project { artifactId("a") }""".toScriptSource(), config).valueOrThrow()).isSameAs(first)
+        bounded.compile("""project { artifactId("b") }""".toScriptSource(), config).valueOrThrow()
+        assertThat(bounded.size).isEqualTo(1)
+        assertThat(bounded.compile("""project { artifactId("a") }""".toScriptSource(), config).valueOrThrow()).isNotSameAs(first)
+    }
+}
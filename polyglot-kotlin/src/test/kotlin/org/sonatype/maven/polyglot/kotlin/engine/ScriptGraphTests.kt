@@ -0,0 +1,83 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.sonatype.maven.polyglot.kotlin.dsl.Project
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.script.experimental.api.ResultWithDiagnostics
+import kotlin.script.experimental.api.ScriptCompilationConfiguration
+import kotlin.script.experimental.api.ScriptEvaluationConfiguration
+import kotlin.script.experimental.api.asSuccess
+import kotlin.script.experimental.host.toScriptSource
+
+class ScriptGraphTests {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    @Test
+    fun `only changed scripts of a POM are outdated`() {
+        val nested = tmp.newFile("nested.kts")
+        nested.writeText("""project { description = "nested" }""")
+        val include = tmp.newFile("include.kts")
+        include.writeText("""eval(basedir.resolve("nested.kts"))""")
+        val pom = tmp.newFile("pom.kts")
+        pom.writeText("""
+            project {
+                artifactId("graph")
+            }
+            eval(basedir.resolve("include.kts"))
+        """.trimIndent())
+        assertThat(ScriptHost.outdated(pom)).containsExactly(pom.absoluteFile)
+
+        ScriptHost.eval(pom, tmp.root, Project(pom))
+        assertThat(ScriptHost.outdated(pom)).isEmpty()
+
+        nested.writeText("""project { description = "changed nested" }""")
+        assertThat(ScriptHost.outdated(pom)).containsExactly(nested.absoluteFile)
+
+        val model = Project(pom)
+        ScriptHost.eval(pom, tmp.root, model)
+        assertThat(model.description).isEqualTo("changed nested")
+        assertThat(ScriptHost.outdated(pom)).isEmpty()
+    }
+
+    @Test
+    fun `an edit keeping the size and modification time is compiled again`() {
+        val pom = tmp.newFile("pom.kts")
+        pom.writeText("""project { description = "first" }""")
+        val lastModified = pom.lastModified()
+        ScriptHost.eval(pom, tmp.root, Project(pom))
+
+        pom.writeText("""project { description = "other" }""")
+        pom.setLastModified(lastModified)
+        assertThat(ScriptHost.outdated(pom)).containsExactly(pom.absoluteFile)
+
+        val model = Project(pom)
+        ScriptHost.eval(pom, tmp.root, model)
+        assertThat(model.description).isEqualTo("other")
+    }
+
+    @Test
+    fun `the least recently compiled scripts are dropped beyond the capacity`() {
+        val graph = ScriptGraph(1)
+        val first = tmp.newFile("first.kts").apply { writeText("1") }
+        val second = tmp.newFile("second.kts").apply { writeText("2") }
+        val configuration = ScriptCompilationConfiguration()
+        val compiled = object : CompiledScript {
+            override val compilationConfiguration = configuration
+
+            override suspend fun getClass(scriptEvaluationConfiguration: ScriptEvaluationConfiguration?) =
+                    ResultWithDiagnostics.Failure()
+        }
+        graph.compile(first, first.toScriptSource(), configuration) { compiled.asSuccess() }
+        assertThat(graph.isCompiled(first, configuration)).isTrue()
+
+        graph.compile(second, second.toScriptSource(), configuration) { compiled.asSuccess() }
+        assertThat(graph.isCompiled(second, configuration)).isTrue()
+        assertThat(graph.isCompiled(first, configuration)).isFalse()
+        assertThat(graph.outdated(first)).containsExactly(first.absoluteFile)
+    }
+}
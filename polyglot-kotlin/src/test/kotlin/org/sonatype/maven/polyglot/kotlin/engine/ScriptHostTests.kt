@@ -0,0 +1,92 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.sonatype.maven.polyglot.kotlin.dsl.Project
+import kotlin.script.experimental.host.toScriptSource
+import kotlin.script.experimental.jvmhost.createJvmCompilationConfigurationFromTemplate
+
+class ScriptHostTests {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    @Test
+    fun `included scripts are evaluated in declared order`() {
+        val names = listOf("c", "a", "d", "b")
+        names.forEach { name ->
+            tmp.newFile("$name.kts").writeText("""project { description = (description ?: "") + "$name" }""")
+        }
+        val pom = tmp.newFile("pom.kts")
+        pom.writeText("""
+            project {
+                artifactId("includes")
+            }
+            eval(${names.joinToString { "basedir.resolve(\"$it.kts\")" }})
+        """.trimIndent())
+
+        val submitted = ScriptHost.concurrentCompilations
+        val model = Project(pom)
+        ScriptHost.eval(pom, tmp.root, model)
+        assertThat(model.artifactId).isEqualTo("includes")
+        assertThat(model.description).isEqualTo("cadb")
+        // the includes were compiled on the compile threads, not one after another by the evaluation
+        assertThat(ScriptHost.concurrentCompilations - submitted).isEqualTo(names.size.toLong())
+    }
+
+    @Test
+    fun `precompiled bundles are only used when enabled`() {
+        val pom = tmp.newFile("pom.kts")
+        pom.writeText("""project { artifactId("untrusted") }""")
+        ScriptHost.precompile(pom)
+        val config = createJvmCompilationConfigurationFromTemplate<PomKtsScript>()
+        assertThat(PrecompiledScripts.load(pom, pom.toScriptSource(), config)).isNull()
+    }
+
+    @Test
+    fun `precompiled bundles are used while the scripts are unchanged`() {
+        System.setProperty(PrecompiledScripts.ENABLED_PROPERTY, "true")
+        try {
+            precompiledBundlesAreUsed()
+        } finally {
+            System.clearProperty(PrecompiledScripts.ENABLED_PROPERTY)
+        }
+    }
+
+    private fun precompiledBundlesAreUsed() {
+        val include = tmp.newFile("include.kts")
+        // the location of the script classes, which are only defined from a jar when read from the bundle
+        include.writeText("""
+            val location = object {}.javaClass.protectionDomain.codeSource?.location
+            project { description = location?.toString() ?: "compiled" }
+        """.trimIndent())
+        val pom = tmp.newFile("pom.kts")
+        pom.writeText("""
+            project {
+                artifactId("precompiled")
+            }
+            eval(basedir.resolve("include.kts"))
+        """.trimIndent())
+
+        val bundles = ScriptHost.precompile(pom)
+        assertThat(bundles).containsExactly(PrecompiledScripts.bundleFile(pom), PrecompiledScripts.bundleFile(include))
+        val config = createJvmCompilationConfigurationFromTemplate<PomKtsScript>()
+        assertThat(PrecompiledScripts.load(include, include.toScriptSource(), config)).isNotNull
+
+        // precompiling evaluated the POM, start over like a new build would
+        ScriptHost.clearCompiledScripts()
+        val model = Project(pom)
+        ScriptHost.eval(pom, tmp.root, model)
+        assertThat(model.artifactId).isEqualTo("precompiled")
+        assertThat(model.description).isEqualTo(PrecompiledScripts.bundleFile(include).toURI().toURL().toString())
+        assertThat(ScriptHost.compiledScripts).isZero()
+
+        include.writeText("""project { description = "changed" }""")
+        assertThat(PrecompiledScripts.load(include, include.toScriptSource(), config)).isNull()
+        val changed = Project(pom)
+        ScriptHost.eval(pom, tmp.root, changed)
+        assertThat(changed.description).isEqualTo("changed")
+    }
+}
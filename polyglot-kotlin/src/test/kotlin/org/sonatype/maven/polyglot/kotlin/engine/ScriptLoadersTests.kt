@@ -0,0 +1,89 @@
+package org.sonatype.maven.polyglot.kotlin.engine
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.net.URLClassLoader
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.script.experimental.api.ScriptEvaluationConfiguration
+import kotlin.script.experimental.api.valueOrThrow
+import kotlin.script.experimental.host.toScriptSource
+import kotlin.script.experimental.jvm.baseClassLoader
+import kotlin.script.experimental.jvm.impl.KJvmCompiledScript
+import kotlin.script.experimental.jvm.jvm
+import kotlin.script.experimental.jvmhost.BasicJvmScriptingHost
+import kotlin.script.experimental.jvmhost.createJvmCompilationConfigurationFromTemplate
+
+class ScriptLoadersTests {
+
+    private val host = BasicJvmScriptingHost()
+
+    private val compiler = ScriptCompiler(host)
+
+    private val compilationConfig = createJvmCompilationConfigurationFromTemplate<PomKtsScript>()
+
+    private val evaluationConfig = ScriptEvaluationConfiguration {
+        jvm {
+            baseClassLoader(PomKtsScript::class.java.classLoader)
+        }
+    }
+
+    @Test
+    fun `loaders are reused until they are evicted`() {
+        val loaders = ScriptLoaders(1)
+        val first = compile("""project { artifactId("first") }""")
+        val second = compile("""project { artifactId("second") }""")
+
+        val loader = classLoader(loaders, first)
+        assertThat(classLoader(loaders, first)).isSameAs(loader)
+        assertThat(generateSequence(loader) { it.parent }.toList()).contains(PomKtsScript::class.java.classLoader)
+
+        assertThat(classLoader(loaders, second)).isNotSameAs(loader)
+        assertThat(loaders.size).isEqualTo(1)
+        assertThat(classLoader(loaders, first)).isNotSameAs(loader)
+    }
+
+    @Test
+    fun `loaders in use survive their eviction`() {
+        val loaders = ScriptLoaders(1)
+        val first = compile("""project { artifactId("in-use") }""")
+        val second = compile("""project { artifactId("evicting") }""")
+        val dependencies = loaders.use(first, evaluationConfig) { script ->
+            classLoader(loaders, second)
+            assertThat(loaders.size).isEqualTo(1)
+            val dependencies = dependencyLoader(scriptClass(script).java.classLoader)
+            assertThat(dependencies.findResource(DEPENDENCY_CLASS)).isNotNull()
+            assertThat(Class.forName(DEPENDENCY_CLASS.removeSuffix(".class").replace('/', '.'), false,
+                    scriptClass(script).java.classLoader)).isNotNull()
+            dependencies
+        }
+        assertThat(dependencies.findResource(DEPENDENCY_CLASS)).isNull()
+    }
+
+    @Test
+    fun `no loaders are kept without capacity`() {
+        val loaders = ScriptLoaders(0)
+        val script = compile("""project { artifactId("uncached") }""")
+        assertThat(classLoader(loaders, script)).isNotSameAs(classLoader(loaders, script))
+        assertThat(loaders.size).isZero()
+        assertThat(dependencyLoader(classLoader(loaders, script)).findResource(DEPENDENCY_CLASS)).isNull()
+    }
+
+    private fun dependencyLoader(classLoader: ClassLoader) =
+            generateSequence(classLoader) { it.parent }
+                    .takeWhile { it !== PomKtsScript::class.java.classLoader }
+                    .filterIsInstance<URLClassLoader>()
+                    .first()
+
+    private fun classLoader(loaders: ScriptLoaders, script: KJvmCompiledScript) =
+            loaders.use(script, evaluationConfig) { scriptClass(it).java.classLoader }
+
+    private fun scriptClass(script: CompiledScript) =
+            host.runInCoroutineContext { script.getClass(evaluationConfig) }.valueOrThrow()
+
+    private fun compile(text: String) =
+            compiler.compile(text.toScriptSource(), compilationConfig).valueOrThrow() as KJvmCompiledScript
+
+    companion object {
+        private const val DEPENDENCY_CLASS = "kotlin/Unit.class"
+    }
+}
@@ -0,0 +1,42 @@
+package org.sonatype.maven.polyglot.kotlin.serialization
+
+import org.apache.maven.model.Dependency
+import org.apache.maven.model.Model
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.io.StringWriter
+
+class ModelScriptWriterTests {
+
+    private val options = mapOf("file.comment" to "ModelScriptWriterTests", "flavor" to "mixed")
+
+    @Test
+    fun `a reused writer produces the same scripts as fresh writers`() {
+        val models = listOf(model("a", 3), model("b", 2000), model("c", 0))
+        val writer = ModelScriptWriter(StringWriter(), options)
+        models.forEach { model ->
+            val reused = StringWriter().also { writer.write(model, it) }.toString()
+            val fresh = StringWriter().also { ModelScriptWriter(it, options).write(model) }.toString()
+            assertThat(reused).isEqualTo(fresh).contains("\"org.example:${model.artifactId}:1.0:jar\"")
+        }
+    }
+
+    @Test
+    fun `large models are streamed completely`() {
+        val script = StringWriter().also { ModelScriptWriter(it, options).write(model("large", 2000)) }.toString()
+        assertThat(script).contains("\"org.example:dependency-1999:1.0\"").endsWith("}\n")
+    }
+
+    private fun model(artifactId: String, dependencies: Int) = Model().apply {
+        groupId = "org.example"
+        this.artifactId = artifactId
+        version = "1.0"
+        (0 until dependencies).forEach { i ->
+            addDependency(Dependency().apply {
+                groupId = "org.example"
+                this.artifactId = "dependency-$i"
+                version = "1.0"
+            })
+        }
+    }
+}
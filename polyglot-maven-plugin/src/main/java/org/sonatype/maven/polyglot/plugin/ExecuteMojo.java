@@ -12,6 +12,8 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Model;
@@ -28,10 +30,13 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.SessionData;
 import org.sonatype.maven.polyglot.PolyglotModelManager;
 import org.sonatype.maven.polyglot.execute.ExecuteContext;
 import org.sonatype.maven.polyglot.execute.ExecuteManager;
 import org.sonatype.maven.polyglot.execute.ExecuteTask;
+import org.sonatype.maven.polyglot.io.FileSupport;
+import org.sonatype.maven.polyglot.metrics.PolyglotMetrics;
 
 /**
  * Executes registered {@link org.sonatype.maven.polyglot.execute.ExecuteTask}s.
@@ -40,7 +45,9 @@ import org.sonatype.maven.polyglot.execute.ExecuteTask;
  */
 @Mojo(name="execute", requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME)
 public class ExecuteMojo extends AbstractMojo {
-  
+
+  private static final String NATIVE_MODELS_KEY = ExecuteMojo.class.getName() + ".nativeModels";
+
   @Component(role = ExecuteManager.class)
   private ExecuteManager manager;
 
@@ -59,6 +66,9 @@ public class ExecuteMojo extends AbstractMojo {
   @Component(role = PolyglotModelManager.class)
   private PolyglotModelManager modelManager;
 
+  @Component(role = PolyglotMetrics.class)
+  private PolyglotMetrics metrics;
+
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
     Log log = getLog();
@@ -73,8 +83,7 @@ public class ExecuteMojo extends AbstractMojo {
     // if there are no tasks that means we run in proper maven and 
     // have to load the nativePom to setup the ExecuteManager
     if (tasks.size() == 0 && nativePom != null) {
-      // TODO avoid parsing the nativePom for each task
-      tasks = manager.getTasks(modelFromNativePom(log));
+      tasks = manager.getTasks(cachedModelFromNativePom(log));
     }
 
     ExecuteContext ctx = new ExecuteContext() {
@@ -103,11 +112,15 @@ public class ExecuteMojo extends AbstractMojo {
       if (taskId.equals(task.getId())) {
         log.debug("Executing task: " + task.getId());
 
+        // the script engines record the compilation and evaluation of task scripts for the project's POM
+        File previous = metrics.enter(project.getFile());
         try {
           task.execute(ctx);
           return;
         } catch (Exception e) {
           throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+          metrics.exit(previous);
         }
       }
     }
@@ -115,6 +128,39 @@ public class ExecuteMojo extends AbstractMojo {
     throw new MojoFailureException("Unable to find task for id: " + taskId);
   }
 
+  /**
+   * Parses the nativePom once per session and content, so all tasks of a module share the parse.
+   */
+  protected Model cachedModelFromNativePom(Log log) throws MojoExecutionException, MojoFailureException {
+    String key;
+    try {
+      key = nativePom.getAbsolutePath() + ":" + FileSupport.digest(nativePom);
+    } catch (IOException e) {
+      throw new MojoFailureException("error reading " + nativePom, e);
+    }
+    // one holder per key, so different modules still parse in parallel
+    AtomicReference<Model> holder = getNativeModels().computeIfAbsent(key, k -> new AtomicReference<>());
+    synchronized (holder) {
+      if (holder.get() == null) {
+        holder.set(modelFromNativePom(log));
+      } else if (log.isDebugEnabled()) {
+        log.debug("Using parsed native pom " + nativePom);
+      }
+      return holder.get();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, AtomicReference<Model>> getNativeModels() {
+    SessionData data = session.getRepositorySession().getData();
+    Map<String, AtomicReference<Model>> models = (Map<String, AtomicReference<Model>>) data.get(NATIVE_MODELS_KEY);
+    while (models == null) {
+      data.set(NATIVE_MODELS_KEY, null, new ConcurrentHashMap<String, AtomicReference<Model>>());
+      models = (Map<String, AtomicReference<Model>>) data.get(NATIVE_MODELS_KEY);
+    }
+    return models;
+  }
+
   protected Model modelFromNativePom(Log log) throws MojoExecutionException, MojoFailureException {
     Map<String, ModelSource> options = new HashMap<String, ModelSource>();
     options.put(ModelProcessor.SOURCE, new FileModelSource(nativePom));
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.sonatype.maven.polyglot.PolyglotModelManager;
+import org.sonatype.maven.polyglot.io.ModelPrecompiler;
+
+/**
+ * Compiles the polyglot POM of the project ahead of time, for flavours that support it. The flavour must be a
+ * dependency of this plugin. Kotlin bundles are only loaded by builds that set {@code polyglot.kotlin.precompiled=true}.
+ *
+ * @since 0.7.3
+ */
+@Mojo(name = "precompile", threadSafe = true)
+public class PrecompileMojo extends AbstractMojo {
+
+  @Component(role = PolyglotModelManager.class)
+  private PolyglotModelManager modelManager;
+
+  @Component(role = ModelPrecompiler.class)
+  private Map<String, ModelPrecompiler> precompilers;
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    File basedir = project.getBasedir();
+    File pom = modelManager.findPom(basedir);
+    String flavour = modelManager.determineFlavourFromPom(basedir);
+    ModelPrecompiler precompiler = flavour != null ? precompilers.get(flavour) : null;
+    if (pom == null || precompiler == null) {
+      getLog().info("Nothing to precompile in " + basedir);
+      return;
+    }
+    try {
+      List<File> files = precompiler.precompile(pom);
+      for (File file : files) {
+        getLog().info("Precompiled " + file);
+      }
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to precompile " + pom, e);
+    }
+  }
+}
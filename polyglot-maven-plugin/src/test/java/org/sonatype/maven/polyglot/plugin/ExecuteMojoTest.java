@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExecuteMojoTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  private int parses;
+
+  @Test
+  public void testUnchangedNativePomIsParsedOncePerSession() throws Exception {
+    File pom = tmp.newFile("pom.rb");
+    write(pom, "project 'a'");
+    MavenSession session = newSession();
+
+    Model first = mojo(session, pom).cachedModelFromNativePom(log());
+    Model second = mojo(session, pom).cachedModelFromNativePom(log());
+
+    assertSame(first, second);
+    assertEquals(1, parses);
+
+    mojo(newSession(), pom).cachedModelFromNativePom(log());
+    assertEquals(2, parses);
+  }
+
+  @Test
+  public void testChangedNativePomIsParsedAgain() throws Exception {
+    File pom = tmp.newFile("pom.rb");
+    write(pom, "project 'a'");
+    MavenSession session = newSession();
+
+    Model first = mojo(session, pom).cachedModelFromNativePom(log());
+    write(pom, "project 'b'");
+    Model changed = mojo(session, pom).cachedModelFromNativePom(log());
+
+    assertNotSame(first, changed);
+    assertEquals(2, parses);
+  }
+
+  private ExecuteMojo mojo(MavenSession session, File nativePom) throws Exception {
+    ExecuteMojo mojo = new ExecuteMojo() {
+      @Override
+      protected Model modelFromNativePom(Log log) {
+        parses++;
+        return new Model();
+      }
+    };
+    inject(mojo, "session", session);
+    inject(mojo, "nativePom", nativePom);
+    return mojo;
+  }
+
+  private Log log() {
+    return new ExecuteMojo().getLog();
+  }
+
+  @SuppressWarnings("deprecation")
+  private static MavenSession newSession() {
+    return new MavenSession(null, new DefaultRepositorySystemSession(), new DefaultMavenExecutionRequest(),
+        new DefaultMavenExecutionResult());
+  }
+
+  private static void write(File file, String content) throws Exception {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void inject(Object target, String name, Object value) throws Exception {
+    Field field = ExecuteMojo.class.getDeclaredField(name);
+    field.setAccessible(true);
+    field.set(target, value);
+  }
+}
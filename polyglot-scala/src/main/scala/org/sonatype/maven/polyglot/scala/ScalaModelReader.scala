@@ -9,9 +9,11 @@ package org.sonatype.maven.polyglot.scala
 
 import scala.collection.immutable
 import scala.language.implicitConversions
+import _root_.scala.io.Source
+import _root_.scala.util.Using
 
 import com.twitter.io.StreamIO
-import org.sonatype.maven.polyglot.scala.eval.Eval
+import org.sonatype.maven.polyglot.scala.eval.{ClassCache, Eval, IncludeCache, MemoryClassCache}
 
 import java.io._
 import java.util
@@ -21,11 +23,13 @@ import javax.inject.{ Named, Inject }
 import org.apache.maven.model.io.ModelParseException
 import org.apache.maven.model.io.ModelReader
 import org.apache.maven.model.Model
+import org.apache.maven.plugin.LegacySupport
 import org.codehaus.plexus.util.FileUtils
 import org.codehaus.plexus.util.IOUtil
 import org.codehaus.plexus.util.io.RawInputStreamFacade
 import org.sonatype.maven.polyglot.execute.{ ExecuteContext, ExecuteTask, ExecuteManager }
 import org.sonatype.maven.polyglot.PolyglotModelUtil
+import org.sonatype.maven.polyglot.cache.ModelCache
 import org.sonatype.maven.polyglot.scala.model.{ Activation => ScalaActivation, ActivationFile => ScalaActivationFile, ActivationOS => ScalaActivationOS, ActivationProperty => ScalaActivationProperty, Build => ScalaBuild, BuildBase => ScalaBuildBase, CiManagement => ScalaCiManagement, Config => ScalaConfig, Contributor => ScalaContributor, DependencyManagement => ScalaDependencyManagement, Dependency => ScalaDependency, DeploymentRepository => ScalaDeploymentRepository, Developer => ScalaDeveloper, DistributionManagement => ScalaDistributionManagement, Execution => ScalaExecution, Extension => ScalaExtension, IssueManagement => ScalaIssueManagement, License => ScalaLicense, MailingList => ScalaMailingList, Model => ScalaModel, Notifier => ScalaNotifier, Organization => ScalaOrganization, Parent => ScalaParent, Plugin => ScalaPlugin, PluginManagement => ScalaPluginManagement, Relocation => ScalaRelocation, RepositoryPolicy => ScalaRepositoryPolicy, Repository => ScalaRepository, Resource => ScalaResource, Scm => ScalaScm, Site => ScalaSite, _ }
 
 /**
@@ -147,32 +151,49 @@ object ScalaConverters {
  * All Scala evaluation is done with files so that checks can be made to determine whether compilation occurs.
  */
 @Named("scala")
-class ScalaModelReader @Inject() (executeManager: ExecuteManager) extends ModelReader {
+class ScalaModelReader @Inject() (executeManager: ExecuteManager, legacySupport: LegacySupport) extends ModelReader {
 
   import org.sonatype.maven.polyglot.scala.ScalaConverters._
 
+  private val classCache = ClassCache.fromSystemProperties()
+
+  /*
+   * Read per build, so a daemon can switch between builds.
+   */
+  private def inMemory: Boolean = PolyglotModelUtil.isEnabled(legacySupport, ScalaModelReader.InMemoryProperty)
+
   override def read(reader: Reader, options: util.Map[String, _]): Model = {
-    val evalPomFile = locateEvalPomFile(options)
-    IOUtil.copy(reader, new FileOutputStream(evalPomFile))
-    val sm = eval(evalPomFile, evalPomFile, options)
+    val sm = if (inMemory) {
+      evalInMemory(IOUtil.toString(reader), options)
+    } else {
+      val evalPomFile = locateEvalPomFile(options)
+      IOUtil.copy(reader, new FileOutputStream(evalPomFile))
+      eval(evalPomFile, evalPomFile, options)
+    }
     val m = sm.asJava
     sm.build.map(b => registerExecutors(m, options, b.tasks))
     m
   }
 
   def read(input: InputStream, options: util.Map[String, _]): Model = {
-    val evalPomFile = locateEvalPomFile(options)
-    FileUtils.copyStreamToFile(new RawInputStreamFacade(input), evalPomFile)
-    val sm = eval(evalPomFile, evalPomFile, options)
+    val sm = if (inMemory) {
+      evalInMemory(IOUtil.toString(input), options)
+    } else {
+      val evalPomFile = locateEvalPomFile(options)
+      FileUtils.copyStreamToFile(new RawInputStreamFacade(input), evalPomFile)
+      eval(evalPomFile, evalPomFile, options)
+    }
     val m = sm.asJava
     sm.build.map(b => registerExecutors(m, options, b.tasks))
     m
   }
 
   def read(input: File, options: util.Map[String, _]): Model = {
-    val source = PolyglotModelUtil.getLocation(options)
-    val evalPomFile = locateEvalPomFile(options)
-    val sm = eval(evalPomFile, input, options).copy(pomFile = Some(input))
+    val sm = (if (inMemory) {
+      evalInMemory(Using.resource(Source.fromFile(input))(_.mkString), options)
+    } else {
+      eval(locateEvalPomFile(options), input, options)
+    }).copy(pomFile = Some(input))
     val m = sm.asJava
     sm.build.map(b => registerExecutors(m, options, b.tasks))
     m
@@ -196,6 +217,11 @@ class ScalaModelReader @Inject() (executeManager: ExecuteManager) extends ModelR
    */
   class MvnEval(target: Option[File], includeBaseDir: File) extends Eval(target) {
 
+    override protected lazy val classCache: Option[ClassCache] = ScalaModelReader.this.classCache
+
+    override protected lazy val memoryClassCache: Option[MemoryClassCache] =
+      if (inMemory) Some(ScalaModelReader.memoryClassCache) else None
+
     /*
    * This is a preprocessor that can include files by requesting them from the given resolvers.
    * 
@@ -223,8 +249,11 @@ class ScalaModelReader @Inject() (executeManager: ExecuteManager) extends ModelR
                 // recursively process includes
                 if (maxDepth == 0) {
                   throw new IllegalStateException("Exceeded maximum recursion depth")
-                } else {
-                  apply(StreamIO.buffer(r.get(path)).toString, maxDepth - 1)
+                } else r match {
+                  case files: MvnFilesystemResolver =>
+                    files.expand(path, maxDepth - 1)(apply(_, maxDepth - 1))
+                  case _ =>
+                    apply(StreamIO.buffer(r.get(path)).toString, maxDepth - 1)
                 }
               }
               case _ =>
@@ -246,19 +275,53 @@ class ScalaModelReader @Inject() (executeManager: ExecuteManager) extends ModelR
         new MvnIncludePreprocessor(
           Seq(
             new ClassScopedResolver(getClass),
-            new FilesystemResolver(includeBaseDir)
+            new MvnFilesystemResolver(includeBaseDir)
           )
         )
       )
+
+    /**
+     * Resolves includes from the filesystem and records them with the [[ModelCache]].
+     */
+    class MvnFilesystemResolver(root: File) extends FilesystemResolver(root) {
+      override def get(path: String): InputStream = {
+        ModelCache.recordInclude(new File(root, path))
+        super.get(path)
+      }
+
+      /**
+       * Returns the expanded include from the [[IncludeCache]], recording it and its own includes. The includes of
+       * the file are resolved against this resolver's root, so it is the context of the cached expansion.
+       */
+      def expand(path: String, maxDepth: Int)(expand: String => String): String = {
+        val file = new File(root, path)
+        val context = root.getAbsolutePath
+        val expanded = ScalaModelReader.includeCache.expand(file, context, maxDepth)(expand)
+        (file +: ScalaModelReader.includeCache.includes(file, context)).foreach(ModelCache.recordInclude)
+        expanded
+      }
+    }
   }
 
-  private def eval(evalPomFile: File, sourcePomFile: File, options: util.Map[String, _]): ScalaModel = {
+  private def eval(evalPomFile: File, sourcePomFile: File, options: util.Map[String, _]): ScalaModel =
+    eval(Some(evalPomFile.getParentFile), options)(_.apply[ScalaModel](sourcePomFile))
+
+  /*
+   * Compiles into memory, so nothing is written below the project. The classes are still served from and stored in
+   * the class cache when it is enabled.
+   */
+  private def evalInMemory(source: String, options: util.Map[String, _]): ScalaModel = {
+    val pomFile = new File(PolyglotModelUtil.getLocation(options))
+    eval(None, options)(_.applyFile[ScalaModel](pomFile, source))
+  }
+
+  private def eval(target: Option[File], options: util.Map[String, _])(evaluate: MvnEval => ScalaModel): ScalaModel = {
     val sourceFile = new File(PolyglotModelUtil.getLocation(options))
     // ensure, we always use the project base directory to resolve includes
     val includeBaseDir = sourceFile.getParentFile()
-    val eval = new MvnEval(Some(evalPomFile.getParentFile), includeBaseDir)
+    val eval = new MvnEval(target, includeBaseDir)
     try {
-      eval.apply[ScalaModel](sourcePomFile)
+      evaluate(eval)
     } catch {
       case e: Eval.CompilerException =>
         // ModuleParseException is able to provide exact position (line nr., column nr.), so if later
@@ -282,6 +345,21 @@ class ScalaModelReader @Inject() (executeManager: ExecuteManager) extends ModelR
 
 }
 
+object ScalaModelReader {
+
+  val InMemoryProperty = "polyglot.scala.inMemory"
+
+  /**
+   * The classes of the POMs evaluated in memory by all readers of this JVM.
+   */
+  private val memoryClassCache = new MemoryClassCache(64)
+
+  /**
+   * The includes expanded by all readers of this JVM.
+   */
+  private val includeCache = new IncludeCache(256)
+}
+
 /*
  * Contains all that is required to execute a block of Scala code.
  */
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import java.io.File
+import java.net.URLClassLoader
+import java.nio.charset.StandardCharsets
+import java.nio.file.{FileAlreadyExistsException, Files, Path, StandardCopyOption}
+import java.util.Comparator
+import java.util.concurrent.ConcurrentHashMap
+
+import org.sonatype.maven.polyglot.Constants
+import org.sonatype.maven.polyglot.io.FileSupport
+
+import scala.jdk.CollectionConverters._
+import scala.reflect.io.AbstractFile
+import scala.util.Using
+import scala.util.control.NonFatal
+
+/**
+ * Persistent cache of the classes compiled from evaluated files, shared by all modules and checkouts of a user.
+ *
+ * The classes of an evaluation are stored in one directory per class name and compiler classpath. The class name of
+ * an evaluated file contains the digest of its processed source, includes inlined, the classpath is identified by the
+ * size and modification time of its jars, and the directories are grouped by the polyglot and Scala versions, so a
+ * changed POM or a rebuilt DSL never hits a stale entry. Entries are written to a temporary
+ * directory first and moved in place, so concurrent builds never see a partial entry. At most `maxEntries` entries
+ * are kept per version, and the least recently used ones are deleted beyond that.
+ */
+class ClassCache(val directory: File, maxEntries: Int = ClassCache.DefaultMaxEntries) {
+
+  private val versionDirectory =
+    new File(directory, Constants.getVersion + "_" + scala.util.Properties.versionNumberString)
+
+  /**
+   * Returns the cached class with the given name compiled against the classpath, loaded by a new class loader below
+   * the given parent. All classes of the entry are defined right away and the loader is closed, so no file stays open
+   * for the lifetime of the class.
+   */
+  def load(className: String, classPath: String, parent: ClassLoader): Option[Class[_]] = {
+    val entry = entryDirectory(className, classPath)
+    if (!new File(entry, className + ".class").isFile) {
+      None
+    } else {
+      try {
+        entry.setLastModified(System.currentTimeMillis())
+        Using.resource(new URLClassLoader(Array(entry.toURI.toURL), parent)) { loader =>
+          classNames(entry).foreach(loader.loadClass)
+          Some(loader.loadClass(className))
+        }
+      } catch {
+        // an unreadable entry is compiled and stored again
+        case NonFatal(_) | _: LinkageError => None
+      }
+    }
+  }
+
+  /**
+   * Stores the class files of the output directory, on disk or in memory, as the classes of the given class name
+   * compiled against the classpath.
+   */
+  def store(className: String, classPath: String, output: AbstractFile): Unit = {
+    val entry = entryDirectory(className, classPath)
+    if (entry.isDirectory) {
+      return
+    }
+    try {
+      Files.createDirectories(versionDirectory.toPath)
+      // hidden, so pruning never takes it for an entry
+      val temp = Files.createTempDirectory(versionDirectory.toPath, "." + className)
+      try {
+        copyClasses(output, temp)
+        Files.move(temp, entry.toPath, StandardCopyOption.ATOMIC_MOVE)
+      } finally {
+        delete(temp)
+      }
+      FileSupport.prune(versionDirectory, (f: File) => !f.getName.startsWith("."), maxEntries)
+    } catch {
+      // another build stored the entry meanwhile
+      case _: FileAlreadyExistsException =>
+      // the cache is an optimization only, the classes are still in the output directory
+      case NonFatal(_) =>
+    }
+  }
+
+  private def copyClasses(dir: AbstractFile, to: Path): Unit =
+    dir.foreach { file =>
+      if (file.isDirectory) {
+        copyClasses(file, Files.createDirectories(to.resolve(file.name)))
+      } else if (file.name.endsWith(".class")) {
+        Files.write(to.resolve(file.name), file.toByteArray)
+      }
+    }
+
+  private[eval] def entryDirectory(className: String, classPath: String): File =
+    new File(versionDirectory, className + "_" + ClassCache.fingerprint(classPath))
+
+  private def classNames(entry: File): Seq[String] = {
+    val root = entry.toPath
+    Using.resource(Files.walk(root)) { files =>
+      files.iterator().asScala
+        .map(root.relativize(_).toString)
+        .filter(_.endsWith(".class"))
+        .map(_.stripSuffix(".class").replace(File.separatorChar, '.'))
+        .toList
+    }
+  }
+
+  private def delete(path: Path): Unit = {
+    if (Files.exists(path)) {
+      Using.resource(Files.walk(path)) { files =>
+        files.sorted(Comparator.reverseOrder[Path]()).forEach(p => Files.deleteIfExists(p))
+      }
+    }
+  }
+}
+
+object ClassCache {
+
+  val EnabledProperty = "polyglot.scala.cache"
+
+  val DirectoryProperty = "polyglot.scala.cache.dir"
+
+  val MaxEntriesProperty = "polyglot.scala.cache.entries"
+
+  val DefaultMaxEntries = 256
+
+  private val directoryFingerprints = new ConcurrentHashMap[File, String]()
+
+  /**
+   * Identifies the content of the classpath, so a jar rebuilt in place, like a snapshot, yields other entries. Jars
+   * are identified by size and modification time, directories by their files once per JVM, since walking them for
+   * every evaluation would cost more than it saves.
+   */
+  private[eval] def fingerprint(classPath: String): String = {
+    val md = FileSupport.newDigest()
+    classPath.split(File.pathSeparator).filter(_.nonEmpty).foreach { path =>
+      val file = new File(path)
+      val id =
+        if (file.isDirectory) {
+          directoryFingerprints.computeIfAbsent(file, dir => {
+            val files = Using.resource(Files.walk(dir.toPath)) { paths =>
+              paths.iterator().asScala.map(_.toFile).filter(_.isFile).toList
+            }
+            files.size + ":" + files.map(_.lastModified).foldLeft(0L)(math.max)
+          })
+        } else {
+          file.length + ":" + file.lastModified
+        }
+      md.update((path + "=" + id + "\u0000").getBytes(StandardCharsets.UTF_8))
+    }
+    FileSupport.toHex(md.digest()).take(16)
+  }
+
+  /**
+   * Returns the cache configured by the system properties or `None` if it is disabled.
+   */
+  def fromSystemProperties(): Option[ClassCache] = {
+    if (System.getProperty(EnabledProperty, "true") == "false") {
+      None
+    } else {
+      val dir = Option(System.getProperty(DirectoryProperty)).getOrElse(
+        Seq(System.getProperty("user.home"), ".m2", "polyglot", "scala-classes").mkString(File.separator))
+      Some(new ClassCache(new File(dir), Integer.getInteger(MaxEntriesProperty, DefaultMaxEntries)))
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import java.io.File
+import java.net.URLClassLoader
+import java.util.jar.JarFile
+import java.util.{Collections, WeakHashMap}
+
+import scala.util.Using
+
+/**
+ * The compiler classpath implied by a class loader, computed once per class loader of the JVM.
+ *
+ * Computing it walks the whole class loader hierarchy, looks up the Scala jars and may read the manifest of an
+ * executable jar, so it is done once instead of for every evaluated POM. Class loaders are held weakly, so closed
+ * extension realms are not kept alive.
+ */
+object ClassPaths {
+
+  /**
+   * @param compilerPath the jar of the Scala compiler
+   * @param libPath the jar of the Scala library
+   * @param impliedClassPath the classpath of the class loader and its parents
+   */
+  final case class ClassPath(compilerPath: List[String], libPath: List[String], impliedClassPath: List[String]) {
+
+    /**
+     * The boot classpath of a compiler, the Scala compiler and library.
+     */
+    lazy val bootClassPath: String = (compilerPath ::: libPath).mkString(File.pathSeparator)
+
+    /**
+     * The classpath of a compiler, the Scala compiler and library followed by the implied classpath.
+     */
+    lazy val classPath: String = (compilerPath ::: libPath ::: impliedClassPath).mkString(File.pathSeparator)
+  }
+
+  private val classPaths = Collections.synchronizedMap(new WeakHashMap[ClassLoader, ClassPath]())
+
+  /**
+   * Returns the classpath implied by the class loader, computing it on first use.
+   */
+  def apply(classLoader: ClassLoader): ClassPath = {
+    val cached = classPaths.get(classLoader)
+    if (cached != null) {
+      cached
+    } else {
+      // computed outside of the lock, a class loader computed twice concurrently just yields the same classpath
+      val classPath = ClassPath(compilerPath(classLoader), libPath(classLoader), impliedClassPath(classLoader))
+      classPaths.put(classLoader, classPath)
+      classPath
+    }
+  }
+
+  private def compilerPath(classLoader: ClassLoader) = try {
+    classPathOfClass(classLoader, "scala.tools.nsc.Interpreter")
+  } catch {
+    case e: Throwable =>
+      throw new RuntimeException("Unable to load Scala interpreter from classpath (scala-compiler jar is missing?)", e)
+  }
+
+  private def libPath(classLoader: ClassLoader) = try {
+    classPathOfClass(classLoader, "scala.AnyVal")
+  } catch {
+    case e: Throwable =>
+      throw new RuntimeException("Unable to load scala base object from classpath (scala-library jar is missing?)", e)
+  }
+
+  /*
+   * For a given FQ classname, trick the resource finder into telling us the containing jar.
+   */
+  private def classPathOfClass(classLoader: ClassLoader, className: String) = {
+    val resource = className.split('.').mkString("/", "/", ".class")
+    val path = classLoader.getResource(resource.substring(1)).getPath
+    if (path.indexOf("file:") >= 0) {
+      val indexOfFile = path.indexOf("file:") + 5
+      val indexOfSeparator = path.lastIndexOf('!')
+      List(path.substring(indexOfFile, indexOfSeparator))
+    } else {
+      require(path.endsWith(resource))
+      List(path.substring(0, path.length - resource.length + 1))
+    }
+  }
+
+  /*
+   * Try to guess our app's classpath.
+   * This is probably fragile.
+   */
+  private def impliedClassPath(classLoader: ClassLoader): List[String] = {
+    def getClassPath(cl: ClassLoader, acc: List[List[String]] = List.empty): List[List[String]] = {
+      val cp = cl match {
+        case urlClassLoader: URLClassLoader => urlClassLoader.getURLs.filter(_.getProtocol == "file").
+          map(u => new File(u.toURI).getPath).toList
+        case _ => Nil
+      }
+      cl.getParent match {
+        case null => (cp :: acc).reverse
+        case parent => getClassPath(parent, cp :: acc)
+      }
+    }
+
+    val classPath = getClassPath(classLoader)
+    val currentClassPath = classPath.head
+
+    // if there's just one thing in the classpath, and it's a jar, assume an executable jar.
+    currentClassPath ::: (if (currentClassPath.size == 1 && currentClassPath.head.endsWith(".jar")) {
+      val jarFile = currentClassPath.head
+      val relativeRoot = new File(jarFile).getParentFile()
+      val nestedClassPath = Using.resource(new JarFile(jarFile))(_.getManifest.getMainAttributes.getValue("Class-Path"))
+      if (nestedClassPath eq null) {
+        Nil
+      } else {
+        nestedClassPath.split(" ").map { f => new File(relativeRoot, f).getAbsolutePath }.toList
+      }
+    } else {
+      Nil
+    }) ::: classPath.tail.flatten
+  }
+}
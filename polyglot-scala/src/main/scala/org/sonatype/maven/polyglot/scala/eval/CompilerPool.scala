@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import java.io.File
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentLinkedDeque}
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.reflect.io.AbstractFile
+import scala.tools.nsc.{Global, Settings}
+
+/**
+ * Warmed Scala compilers shared by all evaluations of the JVM, keyed by their settings.
+ *
+ * Creating a [[Global]] and loading the symbols of its classpath is most of the cost of compiling a POM, so an
+ * evaluation borrows an idle compiler with the same settings and only its output directory and reporter are reset.
+ * A compiler that failed with an exception, rather than reporting compile errors, is dropped. At most
+ * `polyglot.scala.compilers` idle compilers are kept in total, the number of processors by default, and a compiler
+ * is dropped after `polyglot.scala.compiler.runs` runs, 100 by default, since each run leaves symbols behind.
+ */
+object CompilerPool {
+
+  val MaxIdleProperty = "polyglot.scala.compilers"
+
+  val MaxRunsProperty = "polyglot.scala.compiler.runs"
+
+  private val maxIdle = Integer.getInteger(MaxIdleProperty, Runtime.getRuntime.availableProcessors)
+
+  private val maxRuns = Integer.getInteger(MaxRunsProperty, 100)
+
+  private final class Pooled(val global: Global, val reporter: Eval.CollectingReporter) {
+    var runs = 0
+  }
+
+  private val idle = new ConcurrentHashMap[String, ConcurrentLinkedDeque[Pooled]]()
+
+  private val idleCount = new AtomicInteger()
+
+  private val created = new AtomicInteger()
+
+  /**
+   * Runs `f` with a compiler for the settings writing to the given output directory, reporting line numbers
+   * relative to the line offset.
+   */
+  def withCompiler[T](settings: Settings, output: AbstractFile, lineOffset: Int)(f: Global => T): T = {
+    val compilers = idle.computeIfAbsent(key(settings), _ => new ConcurrentLinkedDeque[Pooled]())
+    val pooled = Option(compilers.pollFirst()) match {
+      case Some(p) =>
+        idleCount.decrementAndGet()
+        p
+      case None =>
+        created.incrementAndGet()
+        val reporter = new Eval.CollectingReporter(settings, lineOffset)
+        new Pooled(new Global(settings, reporter), reporter)
+    }
+    pooled.global.settings.outputDirs.setSingleOutput(output)
+    pooled.reporter.lineOffset = lineOffset
+    pooled.reporter.reset()
+    // a compiler that threw may be left in any state, so it is only returned to the pool on success
+    val result = f(pooled.global)
+    pooled.runs += 1
+    if (pooled.runs < maxRuns) {
+      if (idleCount.incrementAndGet() <= maxIdle) {
+        compilers.offerFirst(pooled)
+      } else {
+        idleCount.decrementAndGet()
+      }
+    }
+    result
+  }
+
+  /**
+   * The number of compilers created so far.
+   */
+  private[eval] def createdCount: Int = created.get()
+
+  /**
+   * The number of idle compilers of all settings.
+   */
+  private[eval] def idleCompilers: Int = idleCount.get()
+
+  private def key(settings: Settings): String = settings.recreateArgs.mkString("\u0000")
+}
@@ -21,11 +21,10 @@ import com.twitter.io.StreamIO
 
 import java.io._
 import java.math.BigInteger
-import java.net.URLClassLoader
 import java.security.MessageDigest
 import java.util.Random
 import java.util.concurrent.atomic.AtomicInteger
-import java.util.jar.JarFile
+import org.sonatype.maven.polyglot.metrics.{Phase, PolyglotMetrics}
 import scala.collection.mutable
 import scala.io.Source
 import scala.reflect.internal.util.{AbstractFileClassLoader, BatchSourceFile, CodeAction, Position}
@@ -47,6 +46,51 @@ object Eval {
     val counts: Map[_root_.scala.reflect.internal.Reporter.Severity, AtomicInteger]
   }
 
+  /**
+   * Collects the messages of a compiler run, with line numbers relative to the evaluated code.
+   */
+  class CollectingReporter(val settings: Settings, @volatile var lineOffset: Int) extends FilteringReporter with MessageCollector {
+    val messages = new mutable.ListBuffer[List[String]]
+    val counts = Map(
+      ERROR -> new AtomicInteger(0),
+      WARNING -> new AtomicInteger(0),
+      INFO -> new AtomicInteger(0)
+
+    )
+
+    override def hasErrors: Boolean = super.hasErrors || (counts(ERROR).get() > 0)
+
+    override def doReport(pos: Position, msg: String, severity: Severity, actions: List[CodeAction]): Unit = {
+      counts(severity).intValue()
+      val severityName = severity match {
+        case ERROR   => "error: "
+        case WARNING => "warning: "
+        case _ => ""
+      }
+      // the line number is not always available
+      val lineMessage =
+        try {
+          "line " + (pos.line - lineOffset)
+        } catch {
+          case _: Throwable => ""
+        }
+      messages += (severityName + lineMessage + ": " + msg) ::
+        (if (pos.isDefined) {
+          pos.finalPosition.lineContent.stripLineEnd ::
+            (" " * (pos.column - 1) + "^") ::
+            Nil
+        } else {
+          Nil
+        })
+    }
+
+    override def reset(): Unit = {
+      super.reset()
+      messages.clear()
+      counts.foreach(p => p._2.set(0))
+    }
+  }
+
 }
 
 /**
@@ -70,19 +114,7 @@ object Eval {
 class Eval(target: Option[File]) {
   import Eval._
 
-  private lazy val compilerPath = try {
-    classPathOfClass("scala.tools.nsc.Interpreter")
-  } catch {
-    case e: Throwable =>
-      throw new RuntimeException("Unable to load Scala interpreter from classpath (scala-compiler jar is missing?)", e)
-  }
-
-  private lazy val libPath = try {
-    classPathOfClass("scala.AnyVal")
-  } catch {
-    case e: Throwable =>
-      throw new RuntimeException("Unable to load scala base object from classpath (scala-library jar is missing?)", e)
-  }
+  private lazy val compilerClassPath = ClassPaths(this.getClass.getClassLoader)
 
   /**
    * Preprocessors to run the code through before it is passed to the Scala compiler.
@@ -112,6 +144,12 @@ class Eval(target: Option[File]) {
   // For derived classes do customize or override the default compiler settings.
   protected lazy val compilerSettings: Settings = new EvalSettings(target)
 
+  // For derived classes to share the classes compiled from files across targets and builds.
+  protected lazy val classCache: Option[ClassCache] = None
+
+  // For derived classes to keep the classes compiled from files loaded across evaluations.
+  protected lazy val memoryClassCache: Option[MemoryClassCache] = None
+
   // Primary encapsulation around native Scala compiler
   private[this] lazy val compiler = new StringCompiler(codeWrapperLineOffset, target, compilerSettings, compilerMessageHandler)
 
@@ -145,11 +183,44 @@ class Eval(target: Option[File]) {
    * val i: Int = new Eval()(new File("..."))
    */
   def apply[T](files: File*): T = {
+    val unprocessedSource = files.map { f => Using.resource(Source.fromFile(f))(_.mkString) }.mkString("\n")
     if (target.isDefined) {
-      val targetDir = target.get
-      val unprocessedSource = files.map { f => Using.resource(Source.fromFile(f))(_.mkString) }.mkString("\n")
-      val processed = sourceForString(unprocessedSource)
-      val sourceChecksum = uniqueId(processed, None)
+      applyFile(files(0), unprocessedSource)
+    } else {
+      apply(unprocessedSource, true)
+    }
+  }
+
+  /**
+   * Evaluates code read from the given file. Its class is named after the file and the digest of the processed code,
+   * so it is served from the class caches while the code is unchanged.
+   * val i: Int = new Eval().applyFile(new File("pom.scala"), "1 + 1")
+   */
+  def applyFile[T](file: File, code: String): T = {
+    val processed = sourceForString(code)
+    val sourceChecksum = uniqueId(processed, None)
+
+    // why all this nonsense? Well.
+    // 1) We want to know which file the eval'd code came from
+    // 2) But sometimes files have characters that aren't valid in Java/Scala identifiers
+    // 3) And sometimes files with the same name live in different subdirectories
+    // so, clean it hash it and slap it on the end of Evaluator
+    val cleanBaseName = fileToClassName(file)
+    val className = "Evaluator__%s_%s".format(
+      cleanBaseName, sourceChecksum)
+
+    val parent = this.getClass.getClassLoader
+    val cached = memoryClassCache.flatMap(_.get(className, parent)).orElse {
+      classCache.flatMap(_.load(className, compilerClassPath.classPath, parent)).map { cls =>
+        memoryClassCache.foreach(_.put(cls))
+        cls
+      }
+    }
+    if (cached.isDefined) {
+      return newInstance(cached.get)
+    }
+
+    target.foreach { targetDir =>
       val checksumFile = new File(targetDir, "checksum")
       val lastChecksum = if (checksumFile.exists) {
         Using.resource(Source.fromFile(checksumFile))(_.getLines().take(1).toList.head)
@@ -161,19 +232,12 @@ class Eval(target: Option[File]) {
         compiler.reset()
         writeChecksum(sourceChecksum, checksumFile)
       }
-
-      // why all this nonsense? Well.
-      // 1) We want to know which file the eval'd code came from
-      // 2) But sometimes files have characters that aren't valid in Java/Scala identifiers
-      // 3) And sometimes files with the same name live in different subdirectories
-      // so, clean it hash it and slap it on the end of Evaluator
-      val cleanBaseName = fileToClassName(files(0))
-      val className = "Evaluator__%s_%s".format(
-        cleanBaseName, sourceChecksum)
-      applyProcessed(className, processed, resetState = false)
-    } else {
-      apply(files.map {f => Using.resource(Source.fromFile(f))(_.mkString) }.mkString("\n"), true)
     }
+
+    val cls = compileClass(className, processed, resetState = false)
+    classCache.foreach(_.store(className, compilerClassPath.classPath, compilerOutputDir))
+    memoryClassCache.foreach(_.put(cls))
+    newInstance(cls)
   }
 
   /**
@@ -199,8 +263,23 @@ class Eval(target: Option[File]) {
    * same as apply[T], but does not run preprocessors.
    */
   def applyProcessed[T](className: String, code: String, resetState: Boolean): T = {
+    newInstance(compileClass(className, code, resetState))
+  }
+
+  private[this] def compileClass(className: String, code: String, resetState: Boolean): Class[_] = {
+    val compileStart = System.nanoTime()
     val cls = compiler(wrapCodeInClass(className, code), className, resetState)
-    cls.getConstructor().newInstance().asInstanceOf[() => Any].apply().asInstanceOf[T]
+    PolyglotMetrics.record(Phase.COMPILE, compileStart)
+    cls
+  }
+
+  private[this] def newInstance[T](cls: Class[_]): T = {
+    val evalStart = System.nanoTime()
+    try {
+      cls.getConstructor().newInstance().asInstanceOf[() => Any].apply().asInstanceOf[T]
+    } finally {
+      PolyglotMetrics.record(Phase.EVALUATE, evalStart)
+    }
   }
 
   /**
@@ -317,56 +396,11 @@ class Eval(target: Option[File]) {
    */
   private[this] val codeWrapperLineOffset = 2
 
-  /*
-   * For a given FQ classname, trick the resource finder into telling us the containing jar.
-   */
-  private def classPathOfClass(className: String) = {
-    val resource = className.split('.').mkString("/", "/", ".class")
-    val path = getClass.getResource(resource).getPath
-    if (path.indexOf("file:") >= 0) {
-      val indexOfFile = path.indexOf("file:") + 5
-      val indexOfSeparator = path.lastIndexOf('!')
-      List(path.substring(indexOfFile, indexOfSeparator))
-    } else {
-      require(path.endsWith(resource))
-      List(path.substring(0, path.length - resource.length + 1))
-    }
-  }
-
   /*
    * Try to guess our app's classpath.
    * This is probably fragile.
    */
-  lazy val impliedClassPath: List[String] = {
-    def getClassPath(cl: ClassLoader, acc: List[List[String]] = List.empty): List[List[String]] = {
-      val cp = cl match {
-        case urlClassLoader: URLClassLoader => urlClassLoader.getURLs.filter(_.getProtocol == "file").
-          map(u => new File(u.toURI).getPath).toList
-        case _ => Nil
-      }
-      cl.getParent match {
-        case null => (cp :: acc).reverse
-        case parent => getClassPath(parent, cp :: acc)
-      }
-    }
-
-    val classPath = getClassPath(this.getClass.getClassLoader)
-    val currentClassPath = classPath.head
-
-    // if there's just one thing in the classpath, and it's a jar, assume an executable jar.
-    currentClassPath ::: (if (currentClassPath.size == 1 && currentClassPath.head.endsWith(".jar")) {
-      val jarFile = currentClassPath.head
-      val relativeRoot = new File(jarFile).getParentFile()
-      val nestedClassPath = new JarFile(jarFile).getManifest.getMainAttributes.getValue("Class-Path")
-      if (nestedClassPath eq null) {
-        Nil
-      } else {
-        nestedClassPath.split(" ").map { f => new File(relativeRoot, f).getAbsolutePath }.toList
-      }
-    } else {
-      Nil
-    }) ::: classPath.tail.flatten
-  }
+  lazy val impliedClassPath: List[String] = compilerClassPath.impliedClassPath
 
   trait Preprocessor {
     def apply(code: String): String
@@ -454,9 +488,8 @@ class Eval(target: Option[File]) {
   class EvalSettings(targetDir: Option[File]) extends Settings {
     nowarnings.value = true // warnings are exceptions, so disable
     outputDirs.setSingleOutput(compilerOutputDir)
-    private[this] val pathList = compilerPath ::: libPath
-    bootclasspath.value = pathList.mkString(File.pathSeparator)
-    classpath.value = (pathList ::: impliedClassPath).mkString(File.pathSeparator)
+    bootclasspath.value = compilerClassPath.bootClassPath
+    classpath.value = compilerClassPath.classPath
   }
 
   /**
@@ -469,50 +502,10 @@ class Eval(target: Option[File]) {
     val cache = new mutable.HashMap[String, Class[_]]()
     val target = compilerOutputDir
 
-    val reporter = messageHandler getOrElse new FilteringReporter with MessageCollector {
-      val settings = StringCompiler.this.settings
-      val messages = new mutable.ListBuffer[List[String]]
-      val counts = Map(
-        ERROR -> new AtomicInteger(0),
-        WARNING -> new AtomicInteger(0),
-        INFO -> new AtomicInteger(0)
-
-      )
-
-      override def hasErrors: Boolean = super.hasErrors || (counts(ERROR).get() > 0)
-
-      override def doReport(pos: Position, msg: String, severity: Severity, actions: List[CodeAction]): Unit = {
-        counts(severity).intValue()
-        val severityName = severity match {
-          case ERROR   => "error: "
-          case WARNING => "warning: "
-          case _ => ""
-        }
-        // the line number is not always available
-        val lineMessage =
-          try {
-            "line " + (pos.line - lineOffset)
-          } catch {
-            case _: Throwable => ""
-          }
-        messages += (severityName + lineMessage + ": " + msg) ::
-          (if (pos.isDefined) {
-            pos.finalPosition.lineContent.stripLineEnd ::
-              (" " * (pos.column - 1) + "^") ::
-              Nil
-          } else {
-            Nil
-          })
-      }
-
-      override def reset(): Unit = {
-        super.reset()
-        messages.clear()
-        counts.foreach(p => p._2.set(0))
-      }
-    }
-
-    val global = new Global(settings, reporter)
+    /*
+     * A custom message handler gets a compiler of its own, all others borrow one from the [[CompilerPool]].
+     */
+    private[this] lazy val ownCompiler = messageHandler.map(new Global(settings, _))
 
     /*
      * Class loader for finding classes compiled by this StringCompiler.
@@ -534,13 +527,12 @@ class Eval(target: Option[File]) {
         }
       }
       cache.clear()
-      reporter.reset()
       classLoader = new AbstractFileClassLoader(target, this.getClass.getClassLoader)
     }
 
     def resetReporter(): Unit = {
       synchronized {
-        reporter.reset()
+        messageHandler.foreach(_.reset())
       }
     }
 
@@ -580,23 +572,41 @@ class Eval(target: Option[File]) {
       if (Debug.enabled)
         Debug.printWithLineNumbers(code)
 
-      //reset reporter, or will always throw exception after one error while resetState==false
-      resetReporter()
+      val errors = ownCompiler match {
+        case Some(global) =>
+          //reset reporter, or will always throw exception after one error while resetState==false
+          resetReporter()
+          compile(global, code)
+        case None =>
+          CompilerPool.withCompiler(settings, target, lineOffset) { global =>
+            compile(global, code)
+          }
+      }
+      errors.foreach(msgs => throw new Eval.CompilerException(msgs))
+    }
 
+    /**
+     * Runs the compiler on the code.
+     *
+     * @return the messages of the compiler run if it failed
+     */
+    private def compile(global: Global, code: String): Option[List[List[String]]] = {
       // if you're looking for the performance hit, it's 1/2 this line...
       val compiler = new global.Run
       val sourceFiles = List(new BatchSourceFile("(inline)", code))
       // ...and 1/2 this line:
       compiler.compileSources(sourceFiles)
 
+      val reporter = global.reporter
       if (reporter.hasErrors) {
-        val msgs: List[List[String]] = reporter match {
+        Some(reporter match {
           case collector: MessageCollector =>
             collector.messages.toList
           case _ =>
             List(List(reporter.toString))
-        }
-        throw new Eval.CompilerException(msgs)
+        })
+      } else {
+        None
       }
     }
 
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import java.io.File
+import java.nio.file.Files
+import java.util
+
+import org.sonatype.maven.polyglot.io.FileSupport
+
+import scala.collection.mutable
+
+/**
+ * The expanded text of included files, together with the files they include in turn.
+ *
+ * The includes of an included file are resolved by whoever evaluates it, so entries are kept per resolution context,
+ * such as the directory includes are resolved against, and a shared file included from several projects is expanded
+ * once for each of them.
+ *
+ * An include is served without being read while its size and modification time are unchanged and so are those of the
+ * files it includes. An include whose stamp changed is read again, but only expanded again if its content changed,
+ * so touching a shared file costs one read instead of re-expanding the whole tree below it.
+ *
+ * At most `capacity` expansions are kept, the least recently used one is dropped beyond it, and a file including a
+ * dropped one is expanded again.
+ */
+class IncludeCache(capacity: Int) {
+
+  private case class Key(context: String, file: File)
+
+  /*
+   * @param depth the number of nested include levels below the file
+   */
+  private case class Entry(length: Long, lastModified: Long, digest: String, expanded: String, includes: Seq[File],
+                           depth: Int) {
+    def isCurrent(file: File): Boolean = file.length() == length && file.lastModified() == lastModified
+  }
+
+  private val entries = util.Collections.synchronizedMap(new util.LinkedHashMap[Key, Entry](16, 0.75f, true) {
+    override def removeEldestEntry(eldest: util.Map.Entry[Key, Entry]): Boolean = size > capacity
+  })
+
+  // the direct includes of the files being expanded on this thread
+  private val expanding = new ThreadLocal[List[mutable.ArrayBuffer[File]]] {
+    override def initialValue(): List[mutable.ArrayBuffer[File]] = Nil
+  }
+
+  /**
+   * Returns the expanded text of the file, calling `expand` with its text only if it was never expanded in the given
+   * context or changed since.
+   *
+   * @param maxDepth the number of include levels the file may still nest
+   * @throws IllegalStateException if a cached expansion nests more includes than `maxDepth`
+   */
+  def expand(include: File, context: String, maxDepth: Int)(expand: String => String): String = {
+    val file = include.getAbsoluteFile
+    expanding.get.headOption.foreach(_ += file)
+    if (isCurrent(Key(context, file), Set.empty)) {
+      val entry = entries.get(Key(context, file))
+      if (entry.depth > maxDepth) {
+        throw new IllegalStateException("Exceeded maximum recursion depth")
+      }
+      return entry.expanded
+    }
+    // stamped before the file is read, so a concurrent edit is picked up next time
+    val length = file.length()
+    val lastModified = file.lastModified()
+    val bytes = Files.readAllBytes(file.toPath)
+    val includes = mutable.ArrayBuffer[File]()
+    expanding.set(includes :: expanding.get)
+    val expanded = try {
+      expand(new String(bytes))
+    } finally {
+      expanding.set(expanding.get.tail)
+    }
+    val direct = includes.distinct.toSeq
+    val depth = direct.flatMap(f => Option(entries.get(Key(context, f)))).map(_.depth + 1).maxOption.getOrElse(0)
+    entries.put(Key(context, file), Entry(length, lastModified, digest(bytes), expanded, direct, depth))
+    expanded
+  }
+
+  /**
+   * Returns the files the file included in the given context, directly or through other includes, when it was last
+   * expanded.
+   */
+  def includes(include: File, context: String): Seq[File] = {
+    val visited = mutable.LinkedHashSet[File]()
+    def visit(file: File): Unit =
+      Option(entries.get(Key(context, file))).foreach(_.includes.foreach { included =>
+        if (visited.add(included)) visit(included)
+      })
+    visit(include.getAbsoluteFile)
+    visited.toSeq
+  }
+
+  /*
+   * An entry whose stamp changed is still current if its content did not, it is stamped again then.
+   */
+  private def isCurrent(key: Key, visiting: Set[File]): Boolean = entries.get(key) match {
+    case null => false
+    case _ if visiting.contains(key.file) => false
+    case entry =>
+      val file = key.file
+      val unchanged = entry.isCurrent(file) || {
+        val length = file.length()
+        val lastModified = file.lastModified()
+        file.isFile && digest(Files.readAllBytes(file.toPath)) == entry.digest && {
+          entries.replace(key, entry, entry.copy(length = length, lastModified = lastModified))
+          true
+        }
+      }
+      unchanged && entry.includes.forall(included => isCurrent(Key(key.context, included), visiting + file))
+  }
+
+  private def digest(bytes: Array[Byte]): String = FileSupport.toHex(FileSupport.newDigest().digest(bytes))
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import java.util
+
+/**
+ * The classes compiled from evaluated files that were loaded in this JVM, by class name.
+ *
+ * Like the class names in the [[ClassCache]], the class names of evaluated files contain the digest of their
+ * processed source, so a class is only served for unchanged content. At most `capacity` classes are kept, the least
+ * recently used one is dropped beyond it, so the class loaders of outdated POMs can be collected.
+ */
+class MemoryClassCache(capacity: Int) {
+
+  private val classes = new util.LinkedHashMap[String, Class[_]](16, 0.75f, true) {
+    override def removeEldestEntry(eldest: util.Map.Entry[String, Class[_]]): Boolean = size > capacity
+  }
+
+  /**
+   * Returns the class with the given name if it was loaded below the given parent class loader.
+   */
+  def get(className: String, parent: ClassLoader): Option[Class[_]] = classes.synchronized {
+    Option(classes.get(className)).filter(_.getClassLoader.getParent eq parent)
+  }
+
+  def put(cls: Class[_]): Unit = classes.synchronized {
+    classes.put(cls.getName, cls)
+  }
+}
@@ -27,6 +27,7 @@ import org.sonatype.maven.polyglot.scala.model.{Build => ScalaBuild, Model => Sc
 import scala.collection.{immutable, mutable}
 import org.apache.maven.project.MavenProject
 import org.apache.maven.execution.MavenSession
+import org.apache.maven.plugin.internal.DefaultLegacySupport
 import org.specs2.execute.Result
 
 @RunWith(classOf[JUnitRunner])
@@ -70,7 +71,7 @@ class ScalaModelReaderWriterSpec extends Specification with AfterEach {
     def reset(): Unit = modelTasks.clear()
   }
 
-  val reader = new ScalaModelReader(TestExecuteManager)
+  val reader = new ScalaModelReader(TestExecuteManager, new DefaultLegacySupport)
   val writer = new ScalaModelWriter
 
   def readScalaModel(pomFile: String): Model = {
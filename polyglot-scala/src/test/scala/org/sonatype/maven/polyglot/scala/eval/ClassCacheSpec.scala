@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import org.specs2.mutable._
+import org.specs2.runner.JUnitRunner
+import org.junit.runner.RunWith
+
+import java.io.File
+import java.nio.file.Files
+
+@RunWith(classOf[JUnitRunner])
+class ClassCacheSpec extends Specification {
+
+  class CachingEval(target: File, cache: ClassCache) extends Eval(Some(target)) {
+    override protected lazy val classCache: Option[ClassCache] = Some(cache)
+  }
+
+  private def tempDir(): File = Files.createTempDirectory("polyglot-scala").toFile
+
+  private def classFiles(dir: File): Int = dir.list().count(_.endsWith(".class"))
+
+  "The class cache" should {
+    "serve the classes of a file to other targets" in {
+      val dir = tempDir()
+      val cache = new ClassCache(new File(dir, "cache"))
+      val script = new File(dir, "pom.scala")
+      Files.write(script.toPath, "List(1, 2, 3).map(_ * 2).sum".getBytes("UTF-8"))
+      val first = new File(dir, "first")
+      val second = new File(dir, "second")
+      Seq(first, second).foreach(_.mkdirs())
+
+      new CachingEval(first, cache).apply[Int](script) must_== 12
+      new CachingEval(second, cache).apply[Int](script) must_== 12
+      classFiles(first) must be_>(0)
+      classFiles(second) must_== 0
+    }
+    "survive a cleaned target" in {
+      val dir = tempDir()
+      val cache = new ClassCache(new File(dir, "cache"))
+      val script = new File(dir, "pom.scala")
+      Files.write(script.toPath, "\"cached\"".getBytes("UTF-8"))
+      val target = new File(dir, "target")
+      target.mkdirs()
+
+      new CachingEval(target, cache).apply[String](script) must_== "cached"
+      target.listFiles().foreach(_.delete())
+      new CachingEval(target, cache).apply[String](script) must_== "cached"
+      classFiles(target) must_== 0
+    }
+    "not serve the classes of a changed file" in {
+      val dir = tempDir()
+      val cache = new ClassCache(new File(dir, "cache"))
+      val script = new File(dir, "pom.scala")
+      val target = new File(dir, "target")
+      target.mkdirs()
+
+      Files.write(script.toPath, "1".getBytes("UTF-8"))
+      new CachingEval(target, cache).apply[Int](script) must_== 1
+      Files.write(script.toPath, "2".getBytes("UTF-8"))
+      new CachingEval(target, cache).apply[Int](script) must_== 2
+    }
+    "serve the nested classes of a file" in {
+      val dir = tempDir()
+      val cache = new ClassCache(new File(dir, "cache"))
+      val script = new File(dir, "pom.scala")
+      Files.write(script.toPath, "class Local(val x: Int); new Local(21).x * 2".getBytes("UTF-8"))
+      val first = new File(dir, "first")
+      val second = new File(dir, "second")
+      Seq(first, second).foreach(_.mkdirs())
+
+      new CachingEval(first, cache).apply[Int](script) must_== 42
+      new CachingEval(second, cache).apply[Int](script) must_== 42
+      classFiles(second) must_== 0
+    }
+    "not serve classes compiled against a rebuilt classpath jar" in {
+      val dir = tempDir()
+      val jar = new File(dir, "dsl-1.0-SNAPSHOT.jar")
+      Files.write(jar.toPath, "first build".getBytes("UTF-8"))
+      val before = ClassCache.fingerprint(jar.getPath)
+      ClassCache.fingerprint(jar.getPath) must_== before
+      Files.write(jar.toPath, "second build".getBytes("UTF-8"))
+      jar.setLastModified(jar.lastModified + 2000)
+      ClassCache.fingerprint(jar.getPath) must_!= before
+    }
+    "delete the least recently used entries beyond the maximum" in {
+      val dir = tempDir()
+      val cacheDir = new File(dir, "cache")
+      val cache = new ClassCache(cacheDir, 1)
+      val script = new File(dir, "pom.scala")
+      val target = new File(dir, "target")
+      target.mkdirs()
+
+      Files.write(script.toPath, "1".getBytes("UTF-8"))
+      new CachingEval(target, cache).apply[Int](script) must_== 1
+      Files.write(script.toPath, "2".getBytes("UTF-8"))
+      new CachingEval(target, cache).apply[Int](script) must_== 2
+      cacheDir.listFiles().toSeq.flatMap(_.list().toSeq) must haveSize(1)
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import org.specs2.mutable._
+import org.specs2.runner.JUnitRunner
+import org.junit.runner.RunWith
+
+import java.io.File
+import java.net.{URL, URLClassLoader}
+import java.nio.file.Files
+
+@RunWith(classOf[JUnitRunner])
+class ClassPathsSpec extends Specification {
+
+  "The class paths" should {
+    "be computed once per class loader" in {
+      val classLoader = getClass.getClassLoader
+      ClassPaths(classLoader) must beTheSameAs(ClassPaths(classLoader))
+    }
+    "locate the Scala jars" in {
+      val classPath = ClassPaths(getClass.getClassLoader)
+      classPath.compilerPath.map(new File(_).getName) must contain(beMatching("scala-compiler.*\\.jar"))
+      classPath.libPath.map(new File(_).getName) must contain(beMatching("scala-library.*\\.jar"))
+      classPath.bootClassPath must_== (classPath.compilerPath ::: classPath.libPath).mkString(File.pathSeparator)
+    }
+    "include the entries of a URL class loader" in {
+      val dir = Files.createTempDirectory("polyglot-scala").toFile
+      val classLoader = new URLClassLoader(Array[URL](dir.toURI.toURL), getClass.getClassLoader)
+      ClassPaths(classLoader).impliedClassPath must contain(dir.getPath)
+      ClassPaths(classLoader).classPath must endWith(ClassPaths(classLoader).impliedClassPath.mkString(File.pathSeparator))
+    }
+  }
+}
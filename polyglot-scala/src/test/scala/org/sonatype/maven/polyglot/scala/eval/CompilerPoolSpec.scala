@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import org.specs2.mutable._
+import org.specs2.runner.JUnitRunner
+import org.junit.runner.RunWith
+
+import java.io.File
+import java.nio.file.Files
+
+@RunWith(classOf[JUnitRunner])
+class CompilerPoolSpec extends Specification {
+
+  sequential
+
+  "The compiler pool" should {
+    "share one compiler between evaluations with the same classpath" in {
+      new Eval(None).apply[Int]("1 + 1") must_== 2
+      val created = CompilerPool.createdCount
+      new Eval(None).apply[Int]("2 + 3") must_== 5
+      new Eval(None).apply[Int]("3 + 4") must_== 7
+      CompilerPool.createdCount must_== created
+    }
+    "keep a compiler usable after compile errors" in {
+      new Eval(None).apply[Int]("1 +") must throwA[Eval.CompilerException]
+      new Eval(None).apply[Int]("40 + 2") must_== 42
+    }
+    "report lines relative to the evaluated code with a borrowed compiler" in {
+      new Eval(None).apply[Int]("1") must_== 1
+      new Eval(None).apply[Int]("\n\nundefined") must throwA[Eval.CompilerException].like {
+        case e => e.getMessage must contain("line 3")
+      }
+    }
+    "not share compilers between different settings" in {
+      new Eval(None).apply[Int]("1 + 1") must_== 2
+      val created = CompilerPool.createdCount
+      val eval = new Eval(None) {
+        override protected lazy val compilerSettings = {
+          val settings = new EvalSettings(None)
+          settings.deprecation.value = true
+          settings
+        }
+      }
+      eval.apply[Int]("1 + 1") must_== 2
+      CompilerPool.createdCount must_== created + 1
+      CompilerPool.idleCompilers must be_<=(Runtime.getRuntime.availableProcessors)
+    }
+    "write the classes of each evaluation to its own target directory" in {
+      val dir = Files.createTempDirectory("polyglot-scala").toFile
+      val script = new File(dir, "pom.scala")
+      Files.write(script.toPath, "21 * 2".getBytes("UTF-8"))
+      val targets = Seq("a", "b").map(new File(dir, _))
+      targets.foreach(_.mkdirs())
+      targets.map(target => new Eval(Some(target)).apply[Int](script)) must_== Seq(42, 42)
+      targets.map(_.list().count(_.endsWith(".class"))) must_== Seq(1, 1)
+    }
+  }
+}
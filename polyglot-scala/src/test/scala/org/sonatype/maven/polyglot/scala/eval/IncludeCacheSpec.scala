@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import org.specs2.mutable._
+import org.specs2.runner.JUnitRunner
+import org.junit.runner.RunWith
+
+import java.io.File
+import java.nio.file.Files
+
+import scala.collection.mutable
+
+@RunWith(classOf[JUnitRunner])
+class IncludeCacheSpec extends Specification {
+
+  /**
+   * Expands `include <name>` lines like the include preprocessor, resolving them against the base directory and
+   * recording the expanded files.
+   */
+  class Expander(base: File, cache: IncludeCache, maxDepth: Int = 100) {
+    val expanded = mutable.ArrayBuffer[String]()
+
+    def apply(name: String): String = apply(name, maxDepth)
+
+    private def apply(name: String, depth: Int): String = {
+      if (depth == 0) {
+        throw new IllegalStateException("Exceeded maximum recursion depth")
+      }
+      cache.expand(new File(base, name), base.getAbsolutePath, depth - 1) { text =>
+        expanded += name
+        text.linesIterator.map { line =>
+          if (line.startsWith("include ")) apply(line.stripPrefix("include "), depth - 1) else line
+        }.mkString("\n")
+      }
+    }
+  }
+
+  private def write(file: File, text: String, lastModified: Long): Unit = {
+    Files.write(file.toPath, text.getBytes("UTF-8"))
+    file.setLastModified(lastModified)
+  }
+
+  private def tree(): File = {
+    val dir = Files.createTempDirectory("polyglot-scala").toFile
+    write(new File(dir, "a.scala"), "a\ninclude b.scala", 10000L)
+    write(new File(dir, "b.scala"), "b\ninclude c.scala", 10000L)
+    write(new File(dir, "c.scala"), "c", 10000L)
+    dir
+  }
+
+  "The include cache" should {
+    "expand unchanged includes only once" in {
+      val dir = tree()
+      val cache = new IncludeCache(16)
+      val expander = new Expander(dir, cache)
+      expander("a.scala") must_== "a\nb\nc"
+      expander("a.scala") must_== "a\nb\nc"
+      expander.expanded.toList must_== List("a.scala", "b.scala", "c.scala")
+      cache.includes(new File(dir, "a.scala"), dir.getAbsolutePath).map(_.getName) must_== Seq("b.scala", "c.scala")
+    }
+    "expand the includes of a changed nested include again" in {
+      val dir = tree()
+      val expander = new Expander(dir, new IncludeCache(16))
+      expander("a.scala")
+      write(new File(dir, "c.scala"), "changed", 20000L)
+      expander("a.scala") must_== "a\nb\nchanged"
+      expander.expanded.toList must_== List("a.scala", "b.scala", "c.scala", "a.scala", "b.scala", "c.scala")
+    }
+    "not expand a touched but unchanged include again" in {
+      val dir = tree()
+      val expander = new Expander(dir, new IncludeCache(16))
+      expander("a.scala")
+      new File(dir, "b.scala").setLastModified(20000L)
+      expander("a.scala") must_== "a\nb\nc"
+      expander.expanded.toList must_== List("a.scala", "b.scala", "c.scala")
+    }
+    "expand a shared include for each project including it" in {
+      val dir = Files.createTempDirectory("polyglot-scala").toFile
+      Seq("shared", "a", "b").foreach(new File(dir, _).mkdirs())
+      write(new File(dir, "shared/common.scala"), "common\ninclude defs.scala", 10000L)
+      write(new File(dir, "a/defs.scala"), "a", 10000L)
+      write(new File(dir, "b/defs.scala"), "b", 10000L)
+      val cache = new IncludeCache(16)
+      new Expander(new File(dir, "a"), cache)("../shared/common.scala") must_== "common\na"
+      new Expander(new File(dir, "b"), cache)("../shared/common.scala") must_== "common\nb"
+      cache.includes(new File(dir, "b/../shared/common.scala"), new File(dir, "b").getAbsolutePath) must_==
+        Seq(new File(dir, "b/defs.scala").getAbsoluteFile)
+    }
+    "expand a file again once one of its includes was dropped" in {
+      val dir = tree()
+      val expander = new Expander(dir, new IncludeCache(1))
+      expander("a.scala") must_== "a\nb\nc"
+      expander("a.scala") must_== "a\nb\nc"
+      expander.expanded.toList must_== List("a.scala", "b.scala", "c.scala", "a.scala", "b.scala", "c.scala")
+    }
+    "not serve an expansion nesting deeper than allowed" in {
+      val dir = tree()
+      val cache = new IncludeCache(16)
+      new Expander(dir, cache)("a.scala") must_== "a\nb\nc"
+      new Expander(dir, cache, maxDepth = 2)("a.scala") must throwA[IllegalStateException]
+      new Expander(dir, cache, maxDepth = 3)("a.scala") must_== "a\nb\nc"
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2012 to original author or authors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.sonatype.maven.polyglot.scala.eval
+
+import org.specs2.mutable._
+import org.specs2.runner.JUnitRunner
+import org.junit.runner.RunWith
+
+import java.io.File
+import java.nio.file.Files
+
+@RunWith(classOf[JUnitRunner])
+class MemoryClassCacheSpec extends Specification {
+
+  class InMemoryEval(memory: MemoryClassCache, cache: Option[ClassCache]) extends Eval(None) {
+    override protected lazy val memoryClassCache: Option[MemoryClassCache] = Some(memory)
+    override protected lazy val classCache: Option[ClassCache] = cache
+  }
+
+  class ClassReturningEval(memory: MemoryClassCache, cache: Option[ClassCache]) extends InMemoryEval(memory, cache) {
+    def classOf(file: File, code: String): Class[_] = applyFile[AnyRef](file, code + "\nthis").getClass
+  }
+
+  "Evaluating in memory" should {
+    "serve unchanged files from memory" in {
+      val memory = new MemoryClassCache(8)
+      val pom = new File("project", "pom.scala")
+      val first = new ClassReturningEval(memory, None).classOf(pom, "1")
+      new ClassReturningEval(memory, None).classOf(pom, "1") must beTheSameAs(first)
+      new ClassReturningEval(memory, None).classOf(pom, "2") must not(beTheSameAs(first))
+    }
+    "store its classes in the class cache" in {
+      val dir = Files.createTempDirectory("polyglot-scala").toFile
+      val cache = new ClassCache(new File(dir, "cache"))
+      val pom = new File(dir, "pom.scala")
+      new InMemoryEval(new MemoryClassCache(8), Some(cache)).applyFile[String](pom, "\"stored\"") must_== "stored"
+      new InMemoryEval(new MemoryClassCache(8), Some(cache)).applyFile[String](pom, "\"stored\"") must_== "stored"
+      dir.list().toSeq must_== Seq("cache")
+    }
+    "keep at most its capacity of classes" in {
+      val memory = new MemoryClassCache(1)
+      val first = new ClassReturningEval(memory, None).classOf(new File("a.scala"), "1")
+      new ClassReturningEval(memory, None).classOf(new File("b.scala"), "1")
+      memory.get(first.getName, first.getClassLoader.getParent) must beNone
+    }
+  }
+}
@@ -7,9 +7,9 @@
  */
 project("Polyglot Tesla :: Aggregator") {
 
-    id = "io.tesla.polyglot:tesla-polyglot:pom:0.0.1-SNAPSHOT"
+    id = "io.tesla.polyglot:tesla-polyglot:0.0.1-SNAPSHOT:pom"
 
-    parent = "io.tesla:tesla:4"
+    parent("io.tesla", "tesla", "4")
 
     modules(
         "tesla-polyglot-common",
@@ -30,8 +30,8 @@ project("Polyglot Tesla :: Aggregator") {
 
     dependencyManagement {
         dependencies {
-            dependency("org.eclipse.sisu:org.eclipse.sisu.inject:${sisuInjectVersion}")
-            dependency("org.eclipse.sisu:org.eclipse.sisu.plexus:${sisuInjectVersion}")
+            dependency("org.eclipse.sisu:org.eclipse.sisu.inject:\${sisuInjectVersion}")
+            dependency("org.eclipse.sisu:org.eclipse.sisu.plexus:\${sisuInjectVersion}")
             dependency("org.apache.maven:maven-model-builder:3.5.0")
             dependency("org.apache.maven:maven-embedder:3.5.0")
             dependency("junit:junit:4.12:test")
@@ -42,16 +42,16 @@ project("Polyglot Tesla :: Aggregator") {
         //
         // Arbitrary code can be executed in any phase in the form of a dynamic plugin
         //
-        execute(id: "hello", phase: "validate") {
-            println """
+        execute(id = "hello", phase = "validate") {
+            println("""
                     hello, I am Kotlin inside Maven.
-                    """
+                    """)
         }
 
         plugins {
             plugin("org.codehaus.plexus:plexus-component-metadata:1.5.4") {
                 executions {
-                    execution(goals: listOf("generate-metadata", "generate-test-metadata"))
+                    execution(goals = listOf("generate-metadata", "generate-test-metadata"))
                 }
             }
         }